@@ -0,0 +1,58 @@
+package edu.tedu.radar;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+// Per-call cost of the geometry helpers over a fixed set of seeded points.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GeometryBenchmark {
+    private static final int POINTS = 4096;
+
+    private final Radar radar = new Radar("BENCH", 100.0, 0.5);
+    private final double[] xs = new double[POINTS], ys = new double[POINTS];
+
+    @Setup
+    public void setUp() {
+        SplittableRandom rnd = new SplittableRandom(TargetGenerator.DEFAULT_SEED);
+        for (int i = 0; i < POINTS; i++) {
+            xs[i] = rnd.nextDouble(-150, 150);
+            ys[i] = rnd.nextDouble(-150, 150);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(POINTS)
+    public void distanceKm(Blackhole bh) {
+        for (int i = 0; i < POINTS; i++) bh.consume(radar.distanceKm(0, 0, xs[i], ys[i]));
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(POINTS)
+    public void bearingDeg(Blackhole bh) {
+        for (int i = 0; i < POINTS; i++) bh.consume(radar.bearingDeg(0, 0, xs[i], ys[i]));
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(POINTS)
+    public void fastBearingDeg(Blackhole bh) {
+        for (int i = 0; i < POINTS; i++) bh.consume(FastBearing.bearingDeg(xs[i], ys[i]));
+    }
+}
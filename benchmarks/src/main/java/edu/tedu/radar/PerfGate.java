@@ -0,0 +1,230 @@
+package edu.tedu.radar;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.BenchmarkResult;
+import org.openjdk.jmh.results.IterationResult;
+import org.openjdk.jmh.results.Result;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+
+// Performance regression gate (mvn -Pperf-gate verify). Runs a fixed benchmark set, derives
+// a few size-independent metrics and compares them with a committed baseline file:
+//   <bench>.mtargetsPerSec        sweep throughput in millions of targets per second (higher is better)
+//   <bench>.bytesPerDetection     gc.alloc.rate.norm divided by the detections per sweep (lower is better)
+//   geometry.<bench>.opsPerUs     per-call throughput of the geometry helpers (higher is better)
+//   reference.opsPerUs            ReferenceBenchmark, a fixed workload outside the code under test
+// Throughput metrics are compared relative to the reference measured in the same run (unless
+// --normalize false): a machine that is 20% slower today moves the reference too, so only a
+// change of the code shows up as a regression. Every metric is the median of --runs runs
+// (default 3), each its own set of JMH forks scored by its median iteration. Exits with 1 when any metric is worse than the
+// baseline by more than its tolerance: the per-metric entry of the tolerances file (noisy
+// metrics, each with its reason) or else --tolerance. Always writes a comparison report.
+// --update-baseline rewrites the baseline from this run.
+public final class PerfGate {
+    static final int TARGETS = 1_000_000;
+    static final double IN_RANGE = 0.1, DETECTABLE = 0.9;
+    // allocation near zero is all noise, so it gets an absolute allowance on top of the tolerance
+    static final double BYTES_SLACK = 1.0;
+    static final String REFERENCE = "reference.opsPerUs";
+
+    private PerfGate() {}
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> opts = parse(args);
+        Path baselineFile = Path.of(opts.getOrDefault("baseline", "perf-baseline.properties"));
+        double tolerance = Double.parseDouble(opts.getOrDefault("tolerance", "0.15"));
+        Path tolerancesFile = Path.of(opts.getOrDefault("tolerances", "perf-tolerances.properties"));
+        Path reportDir = Path.of(opts.getOrDefault("report", "target/perf-reports"));
+        boolean update = Boolean.parseBoolean(opts.getOrDefault("update-baseline", "false"));
+        int runs = Integer.parseInt(opts.getOrDefault("runs", "3"));
+        boolean normalize = Boolean.parseBoolean(opts.getOrDefault("normalize", "true"));
+        if (!(tolerance >= 0)) throw new IllegalArgumentException("Invalid tolerance " + tolerance);
+        if (runs < 1) throw new IllegalArgumentException("Invalid runs " + runs);
+
+        List<Map<String, Double>> samples = new ArrayList<>();
+        for (int i = 0; i < runs; i++) samples.add(measure());
+        Map<String, Double> current = median(samples);
+        if (update) {
+            store(baselineFile, current);
+            System.out.println("Baseline written to " + baselineFile.toAbsolutePath());
+            return;
+        }
+        Map<String, Double> baseline = load(baselineFile);
+        Map<String, Double> tolerances = Files.exists(tolerancesFile) ? load(tolerancesFile) : Map.of();
+        for (double t : tolerances.values()) if (!(t >= 0)) throw new IllegalArgumentException("Invalid tolerance " + t + " in " + tolerancesFile);
+        List<String> regressions = new ArrayList<>();
+        String report = report(baseline, current, tolerance, tolerances, normalize, regressions);
+        Files.createDirectories(reportDir);
+        Path reportFile = reportDir.resolve("perf-gate.md");
+        Files.writeString(reportFile, report);
+        System.out.print(report);
+        System.out.println("Report: " + reportFile.toAbsolutePath());
+        if (!regressions.isEmpty()) {
+            System.err.println("Performance regression beyond tolerance: " + regressions);
+            System.exit(1);
+        }
+    }
+
+    static Map<String, Double> measure() throws Exception {
+        Map<String, Double> metrics = new TreeMap<>();
+        int detections = detectionsPerSweep();
+        double referenceBefore = reference();
+
+        Collection<RunResult> scans = new Runner(base()
+                .include(ScanBenchmark.class.getName() + "\\.(scanList|scanBatch|scanGrid)$")
+                .param("targets", String.valueOf(TARGETS))
+                .param("inRangeRatio", String.valueOf(IN_RANGE))
+                .param("detectableRatio", String.valueOf(DETECTABLE))
+                .build()).run();
+        for (RunResult r : scans) {
+            String bench = method(r);
+            double sweepsPerSec = score(r);
+            metrics.put(bench + ".mtargetsPerSec", sweepsPerSec * TARGETS / 1e6);
+            Result alloc = r.getSecondaryResults().get("gc.alloc.rate.norm");
+            if (alloc != null) metrics.put(bench + ".bytesPerDetection", alloc.getScore() / Math.max(detections, 1));
+        }
+
+        Collection<RunResult> geometry = new Runner(base()
+                .include(GeometryBenchmark.class.getName() + "\\.(distanceKm|bearingDeg|fastBearingDeg)$")
+                .build()).run();
+        for (RunResult r : geometry) metrics.put("geometry." + method(r) + ".opsPerUs", score(r));
+        // measured on both sides of the gated benchmarks, so drift during the run averages out
+        metrics.put(REFERENCE, (referenceBefore + reference()) / 2);
+        return metrics;
+    }
+
+    private static double reference() throws Exception {
+        Collection<RunResult> r = new Runner(base().include(ReferenceBenchmark.class.getName() + "\\.columns$").build()).run();
+        return score(r.iterator().next());
+    }
+
+    // Median of the measurement iterations rather than JMH's mean: the nanosecond geometry
+    // loops flip between JIT shapes (e.g. 85 and 210 ops/us in one fork), and a single such
+    // iteration would move the mean of five by 25%.
+    static double score(RunResult r) {
+        List<Double> scores = new ArrayList<>();
+        for (BenchmarkResult b : r.getBenchmarkResults())
+            for (IterationResult i : b.getIterationResults()) scores.add(i.getPrimaryResult().getScore());
+        return scores.isEmpty() ? r.getPrimaryResult().getScore() : medianOf(scores);
+    }
+
+    // Same picture as ScanBenchmark's setup for the gate parameters.
+    static int detectionsPerSweep() {
+        Radar radar = new Radar("BENCH", 100.0, 0.5);
+        return radar.scan(TargetGenerator.targets(radar, TARGETS, IN_RANGE, DETECTABLE, TargetGenerator.DEFAULT_SEED)).size();
+    }
+
+    // Shorter than the interactive defaults: the gate looks for regressions, not the last percent.
+    private static OptionsBuilder base() {
+        OptionsBuilder options = new OptionsBuilder();
+        options.forks(1).warmupIterations(3).warmupTime(TimeValue.seconds(1))
+                .measurementIterations(5).measurementTime(TimeValue.seconds(1))
+                .addProfiler(GCProfiler.class).shouldFailOnError(true);
+        return options;
+    }
+
+    // Per metric, the median over the runs that reported it.
+    static Map<String, Double> median(List<Map<String, Double>> samples) {
+        Map<String, List<Double>> values = new TreeMap<>();
+        for (Map<String, Double> sample : samples) sample.forEach((k, v) -> values.computeIfAbsent(k, x -> new ArrayList<>()).add(v));
+        Map<String, Double> medians = new TreeMap<>();
+        values.forEach((k, v) -> medians.put(k, medianOf(v)));
+        return medians;
+    }
+
+    static double medianOf(List<Double> values) {
+        List<Double> v = new ArrayList<>(values);
+        v.sort(null);
+        int n = v.size();
+        return n % 2 == 1 ? v.get(n / 2) : (v.get(n / 2 - 1) + v.get(n / 2)) / 2;
+    }
+
+    static String report(Map<String, Double> baseline, Map<String, Double> current, double tolerance,
+                         Map<String, Double> tolerances, boolean normalize, List<String> regressions) {
+        // how fast the machine ran relative to the baseline run; 1 when not normalising
+        Double refBase = baseline.get(REFERENCE), refNow = current.get(REFERENCE);
+        double speed = normalize && refBase != null && refNow != null && refBase > 0 && refNow > 0 ? refNow / refBase : 1;
+        StringBuilder sb = new StringBuilder();
+        sb.append("# Performance gate (default tolerance ").append(percentOf(tolerance)).append(")\n\n");
+        if (speed != 1) sb.append("Reference workload ").append(percent(speed - 1))
+                .append(" against the baseline run; throughput changes below are relative to it.\n\n");
+        sb.append("| metric | baseline | current | change | tolerance | status |\n|---|---:|---:|---:|---:|---|\n");
+        Map<String, Double> all = new TreeMap<>(baseline);
+        current.forEach(all::putIfAbsent);
+        for (String metric : all.keySet()) {
+            Double base = baseline.get(metric), now = current.get(metric);
+            double tol = tolerances.getOrDefault(metric, tolerance);
+            // the expected value today: throughput scales with the machine, allocation does not
+            Double expected = base == null || metric.equals(REFERENCE) || metric.endsWith(".bytesPerDetection") ? base : base * speed;
+            String status;
+            if (metric.equals(REFERENCE)) status = "reference";
+            else if (base == null) status = "new";
+            else if (now == null) { status = "MISSING"; regressions.add(metric); }
+            else if (regressed(metric, expected, now, tol)) { status = "REGRESSED"; regressions.add(metric); }
+            else status = "ok";
+            String change = expected == null || now == null || expected == 0 ? "" : percent((now - expected) / expected);
+            sb.append("| ").append(metric).append(" | ").append(format(base)).append(" | ").append(format(now))
+                    .append(" | ").append(change).append(" | ").append(percentOf(tol)).append(" | ").append(status).append(" |\n");
+        }
+        return sb.toString();
+    }
+
+    static boolean regressed(String metric, double base, double now, double tolerance) {
+        if (metric.endsWith(".bytesPerDetection")) return now > base * (1 + tolerance) + BYTES_SLACK;
+        return now < base * (1 - tolerance);
+    }
+
+    static Map<String, Double> load(Path file) throws IOException {
+        Properties p = new Properties();
+        try (Reader in = Files.newBufferedReader(file)) {
+            p.load(in);
+        }
+        Map<String, Double> values = new TreeMap<>();
+        for (String key : p.stringPropertyNames()) values.put(key, Double.parseDouble(p.getProperty(key)));
+        return values;
+    }
+
+    static void store(Path file, Map<String, Double> values) throws IOException {
+        if (file.toAbsolutePath().getParent() != null) Files.createDirectories(file.toAbsolutePath().getParent());
+        try (Writer out = Files.newBufferedWriter(file)) {
+            out.write("# Performance gate baseline; median of --runs runs; regenerate with -Dperf.updateBaseline=true on the reference machine\n");
+            for (Map.Entry<String, Double> e : values.entrySet()) out.write(e.getKey() + "=" + format(e.getValue()) + "\n");
+        }
+    }
+
+    private static String method(RunResult r) {
+        String name = r.getParams().getBenchmark();
+        return name.substring(name.lastIndexOf('.') + 1);
+    }
+
+    // --key value pairs; blank arguments (unset Maven properties) are skipped
+    private static Map<String, String> parse(String[] args) {
+        Map<String, String> opts = new LinkedHashMap<>();
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].isBlank()) continue;
+            if (!args[i].startsWith("--") || i + 1 >= args.length) throw new IllegalArgumentException("Expected --option value at " + args[i]);
+            opts.put(args[i].substring(2), args[++i]);
+        }
+        return opts;
+    }
+
+    private static String format(Double v) { return v == null ? "-" : String.format(Locale.ROOT, "%.4f", v); }
+    private static String percent(double v) { return String.format(Locale.ROOT, "%+.1f%%", v * 100); }
+    private static String percentOf(double v) { return String.format(Locale.ROOT, "%.1f%%", v * 100); }
+}
@@ -0,0 +1,52 @@
+package edu.tedu.radar;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Priority assessment over one realistic sweep worth of detections.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PriorityBenchmark {
+    private static final int DETECTIONS = 4096;
+
+    private Detection[] detections;
+    private List<Detection> detectionList;
+    private final PriorityBuckets buckets = new PriorityBuckets();
+
+    @Setup
+    public void setUp() {
+        Radar radar = new Radar("BENCH", 30.0, 0.5);
+        List<Detection> scanned = radar.scan(TargetGenerator.targets(radar, DETECTIONS * 2, 1.0, 1.0, TargetGenerator.DEFAULT_SEED));
+        detections = scanned.subList(0, Math.min(DETECTIONS, scanned.size())).toArray(new Detection[0]);
+        detectionList = List.of(detections);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(DETECTIONS)
+    public void assessDetectionPriority(Blackhole bh) {
+        for (Detection d : detections) bh.consume(d.assessDetectionPriority());
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(DETECTIONS)
+    public PriorityBuckets classifyBuckets() {
+        return buckets.classify(detectionList);
+    }
+}
@@ -0,0 +1,48 @@
+package edu.tedu.radar;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+// Fixed workload that calls no radar code, for PerfGate to normalise against: it streams two
+// 1M-element columns through sqrt like the scans do, so machine-wide slowdowns (frequency,
+// noisy neighbours) move it and the gated benchmarks together while code changes cannot.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ReferenceBenchmark {
+    private static final int POINTS = 1 << 20;
+
+    private final double[] xs = new double[POINTS], ys = new double[POINTS];
+
+    @Setup
+    public void setUp() {
+        SplittableRandom rnd = new SplittableRandom(TargetGenerator.DEFAULT_SEED);
+        for (int i = 0; i < POINTS; i++) {
+            xs[i] = rnd.nextDouble(-150, 150);
+            ys[i] = rnd.nextDouble(-150, 150);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(POINTS)
+    public int columns() {
+        int within = 0;
+        for (int i = 0; i < POINTS; i++) if (Math.sqrt(xs[i] * xs[i] + ys[i] * ys[i]) <= 100.0) within++;
+        return within;
+    }
+}
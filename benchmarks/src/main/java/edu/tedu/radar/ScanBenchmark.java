@@ -0,0 +1,71 @@
+package edu.tedu.radar;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Whole-sweep throughput of the scan paths over the same seeded picture.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx8g", "--add-modules", "jdk.incubator.vector"})
+public class ScanBenchmark {
+
+    @Param({"1000", "100000", "1000000", "10000000"})
+    public int targets;
+
+    @Param({"0.1", "0.9"})
+    public double inRangeRatio;
+
+    @Param({"0.1", "0.9"})
+    public double detectableRatio;
+
+    private Radar radar;
+    private List<Target> targetList;
+    private TargetBatch batch;
+    private TargetGrid grid;
+    private DetectionBatch out;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        radar = new Radar("BENCH", 100.0, 0.5);
+        targetList = TargetGenerator.targets(radar, targets, inRangeRatio, detectableRatio, TargetGenerator.DEFAULT_SEED);
+        batch = TargetGenerator.batch(targetList);
+        grid = TargetGrid.of(batch);
+        out = new DetectionBatch(targets);
+    }
+
+    @Benchmark
+    public List<Detection> scanList() {
+        return radar.scan(targetList);
+    }
+
+    @Benchmark
+    public DetectionBatch scanBatch() {
+        return radar.scan(batch, out);
+    }
+
+    @Benchmark
+    public DetectionBatch scanGrid() {
+        return radar.scan(grid, out);
+    }
+
+    @Benchmark
+    public List<Detection> scanParallel() {
+        return radar.scanParallel(targetList);
+    }
+}
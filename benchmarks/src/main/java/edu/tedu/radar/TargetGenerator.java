@@ -0,0 +1,38 @@
+package edu.tedu.radar;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+// Seeded synthetic target pictures for a given radar. inRangeRatio is the share of targets
+// inside maxRangeKm, detectableRatio the share of those that also clear the SNR threshold,
+// so every benchmark run sees exactly the same picture for the same parameters.
+final class TargetGenerator {
+    static final long DEFAULT_SEED = 0x5EED_2024L;
+
+    private TargetGenerator() {}
+
+    static List<Target> targets(Radar radar, int count, double inRangeRatio, double detectableRatio, long seed) {
+        SplittableRandom rnd = new SplittableRandom(seed);
+        List<Target> targets = new ArrayList<>(count);
+        double range = radar.getMaxRangeKm(), threshold = Math.max(radar.getSnrThreshold(), 1e-3);
+        for (int i = 0; i < count; i++) {
+            boolean inRange = rnd.nextDouble() < inRangeRatio;
+            // just inside / well outside the range circle
+            double distance = inRange ? rnd.nextDouble() * range * 0.999 : range * (1.001 + rnd.nextDouble() * 3);
+            double angle = rnd.nextDouble() * 2 * Math.PI;
+            double x = radar.getX() + distance * Math.cos(angle);
+            double y = radar.getY() + distance * Math.sin(angle);
+            // rcs = snr * (1 + d): spread detectable targets over all three threat levels
+            double snr = rnd.nextDouble() < detectableRatio
+                    ? threshold * (1.01 + rnd.nextDouble() * 2)
+                    : threshold * rnd.nextDouble() * 0.99;
+            targets.add(new Target(String.format("T%08d", rnd.nextInt(Math.max(count, 1))), x, y, snr * (1 + distance)));
+        }
+        return targets;
+    }
+
+    static TargetBatch batch(List<Target> targets) {
+        return TargetBatch.of(targets);
+    }
+}
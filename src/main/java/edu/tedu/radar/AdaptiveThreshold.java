@@ -0,0 +1,103 @@
+package edu.tedu.radar;
+
+import java.util.Arrays;
+
+// Cell-averaging CFAR state for Radar.scanAdaptive: the coverage disc is split into
+// rangeCells x bearingCells cells, each with an exponentially weighted estimate of the mean
+// SNR of all in-range returns it saw in recent sweeps (the local clutter/noise level).
+// A cell's threshold is scale times the average estimate over its eight neighbours, the
+// training cells (bearing cells wrap at 0 degrees, i.e. east, as Radar.bearingDeg does). The
+// cell under test is left out so a lone target does not raise its own threshold. The
+// threshold is never below the radar's snrThreshold.
+//
+// Per sweep the scan calls observe() for every in-range return and endSweep() once; that
+// folds the sweep into each cell's estimate and recomputes its threshold in O(1) per cell.
+// One instance belongs to one radar and is not thread-safe.
+public class AdaptiveThreshold {
+    private final double maxRangeKm;
+    private final int rangeCells, bearingCells;
+    private final double alpha, scale;
+
+    private final double[] noise;   // EMA of the per-sweep mean SNR
+    private final double[] level;   // scale * training-cell average, used by the next sweep
+    private final double[] sweepSum;
+    private final int[] sweepCount;
+    private long sweeps;
+
+    // alpha is the EMA weight of the newest sweep (0 < alpha <= 1).
+    public AdaptiveThreshold(double maxRangeKm, int rangeCells, int bearingCells, double alpha, double scale) {
+        if (!(maxRangeKm > 0) || Double.isInfinite(maxRangeKm) || rangeCells < 1 || bearingCells < 1
+                || (long) rangeCells * bearingCells > Integer.MAX_VALUE || !(alpha > 0 && alpha <= 1) || !(scale > 0) || Double.isInfinite(scale))
+            throw new IllegalArgumentException("Invalid parameters");
+        this.maxRangeKm = maxRangeKm;
+        this.rangeCells = rangeCells;
+        this.bearingCells = bearingCells;
+        this.alpha = alpha;
+        this.scale = scale;
+        int cells = rangeCells * bearingCells;
+        noise = new double[cells];
+        level = new double[cells];
+        sweepSum = new double[cells];
+        sweepCount = new int[cells];
+    }
+
+    public double getMaxRangeKm(){ return maxRangeKm; }
+    public int cellCount(){ return noise.length; }
+    public long getSweepCount(){ return sweeps; }
+
+    // Adaptive part of the threshold at a position (0 until the cell has history).
+    public double getLevel(double distanceKm, double bearingDeg){ return level[cellOf(distanceKm, bearingDeg)]; }
+    public double getNoiseEstimate(double distanceKm, double bearingDeg){ return noise[cellOf(distanceKm, bearingDeg)]; }
+
+    // Forgets all history.
+    public void reset() {
+        Arrays.fill(noise, 0); Arrays.fill(level, 0);
+        Arrays.fill(sweepSum, 0); Arrays.fill(sweepCount, 0);
+        sweeps = 0;
+    }
+
+    // Distances past maxRangeKm fall into the outermost ring.
+    int cellOf(double distanceKm, double bearingDeg) {
+        int r = distanceKm > 0 ? (int) Math.min(distanceKm / maxRangeKm * rangeCells, rangeCells - 1) : 0;
+        int b = bearingDeg > 0 ? (int) Math.min(bearingDeg / 360 * bearingCells, bearingCells - 1) : 0;
+        return r * bearingCells + b;
+    }
+
+    double level(int cell){ return level[cell]; }
+
+    void observe(int cell, double snr) {
+        sweepSum[cell] += snr;
+        sweepCount[cell]++;
+    }
+
+    // Folds the sweep into the estimates (an empty cell pulls its estimate towards 0) and
+    // recomputes every cell's threshold level for the next sweep.
+    void endSweep() {
+        for (int c = 0; c < noise.length; c++) {
+            double mean = sweepCount[c] == 0 ? 0 : sweepSum[c] / sweepCount[c];
+            noise[c] += alpha * (mean - noise[c]);
+            sweepSum[c] = 0;
+            sweepCount[c] = 0;
+        }
+        for (int r = 0; r < rangeCells; r++) {
+            for (int b = 0; b < bearingCells; b++) {
+                double sum = 0;
+                int n = 0;
+                for (int dr = -1; dr <= 1; dr++) {
+                    int rr = r + dr;
+                    if (rr < 0 || rr >= rangeCells) continue;
+                    for (int db = -1; db <= 1; db++) {
+                        if (dr == 0 && db == 0) continue;
+                        if (bearingCells < 3 && db != 0) continue; // fewer than three sectors: no distinct neighbours
+                        int bb = Math.floorMod(b + db, bearingCells);
+                        sum += noise[rr * bearingCells + bb];
+                        n++;
+                    }
+                }
+                // a single-cell grid has no training cells and falls back to its own estimate
+                level[r * bearingCells + b] = scale * (n == 0 ? noise[r * bearingCells + b] : sum / n);
+            }
+        }
+        sweeps++;
+    }
+}
@@ -0,0 +1,7 @@
+package edu.tedu.radar;
+
+// How a Radar computes detection bearings.
+public enum BearingMode {
+    EXACT, // Math.atan2, full double precision (default)
+    FAST   // FastBearing lookup table, error at most FastBearing.MAX_ERROR_DEG
+}
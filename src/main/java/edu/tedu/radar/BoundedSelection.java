@@ -0,0 +1,104 @@
+package edu.tedu.radar;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.ToDoubleFunction;
+
+// Keeps the k best detections seen so far in a binary heap whose root is the worst kept
+// entry: O(log k) per offer, O(k) memory. Order is by key ascending (smaller is better),
+// then targetId, then arrival sequence, so results are deterministic.
+final class BoundedSelection {
+    private final int k;
+    private final ToDoubleFunction<Detection> key;
+    private Detection[] items;
+    private double[] keys;
+    private long[] seqs;
+    private int size;
+
+    BoundedSelection(int k, ToDoubleFunction<Detection> key) {
+        if (k < 0) throw new IllegalArgumentException("k < 0");
+        this.k = k;
+        this.key = key;
+        int capacity = Math.max(1, Math.min(k, 1024)); // grows on demand for large k
+        items = new Detection[capacity];
+        keys = new double[capacity];
+        seqs = new long[capacity];
+    }
+
+    // False when a detection with this key cannot enter the selection, so the caller can
+    // skip building it.
+    boolean mayAccept(double candidateKey) {
+        return size < k || (k > 0 && candidateKey <= keys[0]);
+    }
+
+    void offer(Detection d, long seq) {
+        double dk = key.applyAsDouble(d);
+        if (size < k) {
+            if (size == items.length) grow();
+            set(size, d, dk, seq);
+            siftUp(size++);
+        } else if (k > 0 && compare(keys[0], items[0], seqs[0], dk, d, seq) > 0) {
+            set(0, d, dk, seq);
+            siftDown(0);
+        }
+    }
+
+    // Kept detections, best first. Empties the selection.
+    List<Detection> drainSorted() {
+        Detection[] out = new Detection[size];
+        while (size > 0) {
+            out[size - 1] = items[0]; // root is the worst remaining
+            size--;
+            if (size > 0) {
+                set(0, items[size], keys[size], seqs[size]);
+                siftDown(0);
+            }
+        }
+        return new ArrayList<>(Arrays.asList(out));
+    }
+
+    private static int compare(double ka, Detection a, long sa, double kb, Detection b, long sb) {
+        int c = Double.compare(ka, kb);
+        if (c != 0) return c;
+        c = a.getTargetId().compareTo(b.getTargetId());
+        return c != 0 ? c : Long.compare(sa, sb);
+    }
+
+    private int compareSlots(int i, int j) {
+        return compare(keys[i], items[i], seqs[i], keys[j], items[j], seqs[j]);
+    }
+
+    private void siftUp(int i) {
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (compareSlots(i, parent) <= 0) return;
+            swap(i, parent);
+            i = parent;
+        }
+    }
+
+    private void siftDown(int i) {
+        for (;;) {
+            int l = 2 * i + 1, r = l + 1, worst = i;
+            if (l < size && compareSlots(l, worst) > 0) worst = l;
+            if (r < size && compareSlots(r, worst) > 0) worst = r;
+            if (worst == i) return;
+            swap(i, worst);
+            i = worst;
+        }
+    }
+
+    private void set(int i, Detection d, double dk, long seq) { items[i] = d; keys[i] = dk; seqs[i] = seq; }
+
+    private void swap(int i, int j) {
+        Detection d = items[i]; items[i] = items[j]; items[j] = d;
+        double kk = keys[i]; keys[i] = keys[j]; keys[j] = kk;
+        long s = seqs[i]; seqs[i] = seqs[j]; seqs[j] = s;
+    }
+
+    private void grow() {
+        int c = (int) Math.min((long) k, items.length * 2L);
+        items = Arrays.copyOf(items, c); keys = Arrays.copyOf(keys, c); seqs = Arrays.copyOf(seqs, c);
+    }
+}
@@ -6,13 +6,19 @@ public class Detection {
     private final double bearingDeg;
     private final double snr;
     private final ThreatLevel threat;
+    private final int targetIdHandle; // carried over from Target.getIdHandle()
 
     public Detection(String targetId, double distanceKm, double bearingDeg, double snr, ThreatLevel threat) {
-        this.targetId = targetId; this.distanceKm = distanceKm; this.bearingDeg = bearingDeg;
-        this.snr = snr; this.threat = threat;
+        this(targetId, -1, distanceKm, bearingDeg, snr, threat);
+    }
+
+    public Detection(String targetId, int targetIdHandle, double distanceKm, double bearingDeg, double snr, ThreatLevel threat) {
+        this.targetId = targetId; this.targetIdHandle = targetIdHandle; this.distanceKm = distanceKm;
+        this.bearingDeg = bearingDeg; this.snr = snr; this.threat = threat;
     }
 
     public String getTargetId(){ return targetId; }
+    public int getTargetIdHandle(){ return targetIdHandle; }
     public double getDistanceKm(){ return distanceKm; }
     public double getBearingDeg(){ return bearingDeg; }
     public double getSnr(){ return snr; }
@@ -22,21 +28,13 @@ public class Detection {
         return this.threat == ThreatLevel.HIGH;
     }
 
-    public String assessDetectionPriority() {
-        // This logic has 3 decision points, resulting in V(G) = 3 + 1 = 4.
-
-        if (this.threat == ThreatLevel.HIGH && this.distanceKm < 10.0) { // Decision 1 (&& counts as 1)
-            return "PRIORITY_1_INTERCEPT";
-
-        } else if (this.threat == ThreatLevel.HIGH) { // Decision 2
-            return "PRIORITY_2_MONITOR";
-
-        } else if (this.threat == ThreatLevel.MEDIUM && this.snr > 3.0) { // Decision 3 (&& counts as 1)
-            return "PRIORITY_3_TRACK";
+    public DetectionPriority getPriority() {
+        return DetectionPriority.of(threat, distanceKm, snr);
+    }
 
-        } else {
-            return "PRIORITY_4_LOG";
-        }
+    // Same rules as getPriority(); the enum constant name is a shared string, nothing is allocated.
+    public String assessDetectionPriority() {
+        return getPriority().name();
     }
 
 }
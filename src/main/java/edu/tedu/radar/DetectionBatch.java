@@ -0,0 +1,186 @@
+package edu.tedu.radar;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+// Columnar scan result. Buffers are reused across sweeps, so a warmed-up batch scans
+// without allocating. Rows must be appended in ascending source-row order; that is what
+// keeps sortByTargetId() identical to the stable id sort of Radar.scan(List).
+public class DetectionBatch {
+    private static final int RADIX_BITS = 11;
+    private static final int RADIX_MASK = (1 << RADIX_BITS) - 1;
+
+    private int[] row, idRef;
+    private double[] distanceKm, bearingDeg, snr;
+    private ThreatLevel[] threat;
+    private int size;
+
+    private String[] idTable = new String[0];
+    private int[] idHandles; // idRef -> TargetIdDictionary handle; null when ids carry none
+    private int[] sortRanks = new int[0], order = new int[0], orderScratch = new int[0];
+    private final int[] radixCounts = new int[1 << RADIX_BITS];
+    private int[] candidates = new int[0];
+    private DetectionBatch scratch; // second set of columns for the sort permutation
+
+    public DetectionBatch() { this(16); }
+
+    public DetectionBatch(int capacity) {
+        if (capacity < 0) throw new IllegalArgumentException("capacity < 0");
+        allocate(Math.max(capacity, 1));
+    }
+
+    public int size(){ return size; }
+    public int getRow(int i){ return row[check(i)]; }
+    public int getIdRef(int i){ return idRef[check(i)]; }
+    public String getTargetId(int i){ return idTable[idRef[check(i)]]; }
+    public int getTargetIdHandle(int i){ return idHandles == null ? -1 : idHandles[idRef[check(i)]]; }
+    public double getDistanceKm(int i){ return distanceKm[check(i)]; }
+    public double getBearingDeg(int i){ return bearingDeg[check(i)]; }
+    public double getSnr(int i){ return snr[check(i)]; }
+    public ThreatLevel getThreat(int i){ return threat[check(i)]; }
+
+    public Detection toDetection(int i) {
+        check(i);
+        int ref = idRef[i];
+        return new Detection(idTable[ref], idHandles == null ? -1 : idHandles[ref], distanceKm[i], bearingDeg[i], snr[i], threat[i]);
+    }
+
+    public List<Detection> toDetections() {
+        List<Detection> detections = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) detections.add(toDetection(i));
+        return detections;
+    }
+
+    // Starts a new sweep whose id references resolve through idTable.
+    void reset(String[] idTable) { reset(idTable, null); }
+
+    void reset(String[] idTable, int[] idHandles) {
+        this.idTable = idTable;
+        this.idHandles = idHandles;
+        this.size = 0;
+    }
+
+    void add(int sourceRow, int ref, double distance, double bearing, double snrValue, ThreatLevel level) {
+        if (size == row.length) grow();
+        int i = size++;
+        row[i] = sourceRow; idRef[i] = ref;
+        distanceKm[i] = distance; bearingDeg[i] = bearing; snr[i] = snrValue; threat[i] = level;
+    }
+
+    // Per-caller scratch for index queries, so a shared index can serve concurrent scans.
+    // Growing keeps the existing contents.
+    int[] candidateBuffer(int minCapacity) {
+        if (candidates.length < minCapacity) candidates = Arrays.copyOf(candidates, Math.max(minCapacity, candidates.length * 2));
+        return candidates;
+    }
+
+    // Orders detections by target id through the precomputed id ranks; ties keep append order.
+    void sortByTargetId(int[] idRank) {
+        if (size < 2) return;
+        ensureSortCapacity();
+        boolean sorted = true;
+        int maxRank = 0;
+        for (int i = 0; i < size; i++) {
+            int r = idRank[idRef[i]];
+            sortRanks[i] = r;
+            if (i > 0 && r < sortRanks[i - 1]) sorted = false;
+            if (r > maxRank) maxRank = r;
+        }
+        if (!sorted) permute(radixOrder(maxRank));
+    }
+
+    // Same order without a rank table, for a batch that is sorted once: only the ids of the
+    // detections are compared, however many ids the target picture had. When every id
+    // carries a TargetIdDictionary handle, the handles are the ranks (their order is checked
+    // against the ids in O(n), so handles from different dictionaries fall through);
+    // otherwise a stable merge sort of row indexes on the id strings (no boxing).
+    void sortByTargetId() {
+        if (size < 2) return;
+        ensureSortCapacity();
+        if (idHandles != null && sortByHandles()) return;
+        for (int i = 0; i < size; i++) order[i] = i;
+        permute(TargetIdDictionary.sortByIds(order, orderScratch, size, idTable, idRef));
+    }
+
+    private boolean sortByHandles() {
+        int maxRank = 0;
+        for (int i = 0; i < size; i++) {
+            int h = idHandles[idRef[i]];
+            if (h < 0) return false;
+            sortRanks[i] = h;
+            if (h > maxRank) maxRank = h;
+        }
+        int[] src = radixOrder(maxRank);
+        for (int k = 1; k < size; k++) {
+            int a = src[k - 1], b = src[k];
+            int c = TargetIdDictionary.compareIds(idTable[idRef[a]], idTable[idRef[b]]);
+            // equal handles must mean equal ids and distinct handles distinct, ascending ids
+            if (sortRanks[a] == sortRanks[b] ? c != 0 : c >= 0) return false;
+        }
+        permute(src);
+        return true;
+    }
+
+    // Stable LSD radix sort of the rows by sortRanks[0..size): only as many RADIX_BITS passes
+    // run as maxRank needs (one pass for up to 2048 distinct ids). Returns the row order.
+    private int[] radixOrder(int maxRank) {
+        for (int i = 0; i < size; i++) order[i] = i;
+        int[] src = order, dst = orderScratch;
+        for (int shift = 0; shift < 32 && (maxRank >>> shift) != 0; shift += RADIX_BITS) {
+            int[] counts = radixCounts;
+            Arrays.fill(counts, 0);
+            for (int k = 0; k < size; k++) counts[(sortRanks[src[k]] >>> shift) & RADIX_MASK]++;
+            for (int b = 0, start = 0; b < counts.length; b++) { int c = counts[b]; counts[b] = start; start += c; }
+            for (int k = 0; k < size; k++) dst[counts[(sortRanks[src[k]] >>> shift) & RADIX_MASK]++] = src[k];
+            int[] t = src; src = dst; dst = t;
+        }
+        return src;
+    }
+
+    private void ensureSortCapacity() {
+        if (sortRanks.length < size) {
+            sortRanks = new int[row.length]; order = new int[row.length]; orderScratch = new int[row.length];
+        }
+    }
+
+    // Rewrites the columns in the order of src[0..size).
+    private void permute(int[] src) {
+        if (scratch == null || scratch.row.length < row.length) scratch = new DetectionBatch(row.length);
+        DetectionBatch s = scratch;
+        for (int k = 0; k < size; k++) {
+            int i = src[k];
+            s.row[k] = row[i]; s.idRef[k] = idRef[i];
+            s.distanceKm[k] = distanceKm[i]; s.bearingDeg[k] = bearingDeg[i];
+            s.snr[k] = snr[i]; s.threat[k] = threat[i];
+        }
+        swapColumns(s);
+    }
+
+    private void swapColumns(DetectionBatch s) {
+        int[] r = row; row = s.row; s.row = r;
+        int[] ids = idRef; idRef = s.idRef; s.idRef = ids;
+        double[] d = distanceKm; distanceKm = s.distanceKm; s.distanceKm = d;
+        double[] b = bearingDeg; bearingDeg = s.bearingDeg; s.bearingDeg = b;
+        double[] n = snr; snr = s.snr; s.snr = n;
+        ThreatLevel[] t = threat; threat = s.threat; s.threat = t;
+    }
+
+    private void allocate(int c) {
+        row = new int[c]; idRef = new int[c];
+        distanceKm = new double[c]; bearingDeg = new double[c]; snr = new double[c];
+        threat = new ThreatLevel[c];
+    }
+
+    private void grow() {
+        int c = row.length * 2;
+        row = Arrays.copyOf(row, c); idRef = Arrays.copyOf(idRef, c);
+        distanceKm = Arrays.copyOf(distanceKm, c); bearingDeg = Arrays.copyOf(bearingDeg, c);
+        snr = Arrays.copyOf(snr, c); threat = Arrays.copyOf(threat, c);
+    }
+
+    private int check(int i) {
+        if (i < 0 || i >= size) throw new IndexOutOfBoundsException("detection " + i + " of " + size);
+        return i;
+    }
+}
@@ -0,0 +1,50 @@
+package edu.tedu.radar;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+// Memory-mapped view of a detection file written by DetectionFileWriter.
+public class DetectionFileReader implements Closeable {
+    private static final ThreatLevel[] LEVELS = ThreatLevel.values();
+
+    private final MappedRecordFile file;
+
+    public DetectionFileReader(Path path) throws IOException {
+        this.file = new MappedRecordFile(path, MappedRecordFile.DETECTION_MAGIC, MappedRecordFile.DETECTION_RECORD_BYTES, 0, 28);
+    }
+
+    public int size(){ return file.recordCount(); }
+
+    public String getTargetId(int record) {
+        file.checkRecord(record);
+        return file.ids()[file.chunkOf(record).getInt(file.offsetOf(record))];
+    }
+    public double getDistanceKm(int record){ return field(record, 4); }
+    public double getBearingDeg(int record){ return field(record, 12); }
+    public double getSnr(int record){ return field(record, 20); }
+    public ThreatLevel getThreat(int record) {
+        file.checkRecord(record);
+        return LEVELS[file.chunkOf(record).get(file.offsetOf(record) + 28)];
+    }
+
+    public Detection toDetection(int record) {
+        return new Detection(getTargetId(record), getDistanceKm(record), getBearingDeg(record), getSnr(record), getThreat(record));
+    }
+
+    public List<Detection> readAll() {
+        List<Detection> detections = new ArrayList<>(size());
+        for (int i = 0; i < size(); i++) detections.add(toDetection(i));
+        return detections;
+    }
+
+    private double field(int record, int offset) {
+        file.checkRecord(record);
+        return file.chunkOf(record).getDouble(file.offsetOf(record) + offset);
+    }
+
+    @Override
+    public void close() throws IOException { file.close(); }
+}
@@ -0,0 +1,36 @@
+package edu.tedu.radar;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.List;
+
+// Streams scan results into the fixed-record detection file format; the threat level is
+// stored as its ordinal byte.
+public class DetectionFileWriter extends RecordFileWriter {
+
+    public DetectionFileWriter(Path file) throws IOException {
+        super(file, MappedRecordFile.DETECTION_MAGIC, MappedRecordFile.DETECTION_RECORD_BYTES);
+    }
+
+    public void write(String targetId, double distanceKm, double bearingDeg, double snr, ThreatLevel threat) throws IOException {
+        ByteBuffer b = beginRecord();
+        b.putInt(intern(targetId)).putDouble(distanceKm).putDouble(bearingDeg).putDouble(snr).put((byte) threat.ordinal());
+    }
+
+    public void write(Detection d) throws IOException {
+        write(d.getTargetId(), d.getDistanceKm(), d.getBearingDeg(), d.getSnr(), d.getThreat());
+    }
+
+    public void writeAll(List<Detection> detections) throws IOException {
+        for (Detection d : detections) write(d);
+    }
+
+    // Writes a columnar result without materialising Detection objects.
+    public void writeAll(DetectionBatch detections) throws IOException {
+        for (int i = 0; i < detections.size(); i++) {
+            write(detections.getTargetId(i), detections.getDistanceKm(i), detections.getBearingDeg(i),
+                    detections.getSnr(i), detections.getThreat(i));
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package edu.tedu.radar;
+
+// Intercept priority of a detection, most urgent first (ordinal 0 = PRIORITY_1_INTERCEPT).
+public enum DetectionPriority {
+    PRIORITY_1_INTERCEPT,
+    PRIORITY_2_MONITOR,
+    PRIORITY_3_TRACK,
+    PRIORITY_4_LOG;
+
+    private static final DetectionPriority[] VALUES = values();
+
+    public static DetectionPriority of(ThreatLevel threat, double distanceKm, double snr) {
+        return VALUES[ordinalOf(threat, distanceKm, snr)];
+    }
+
+    // This logic has 3 decision points, resulting in V(G) = 3 + 1 = 4.
+    static int ordinalOf(ThreatLevel threat, double distanceKm, double snr) {
+        if (threat == ThreatLevel.HIGH && distanceKm < 10.0) { // Decision 1 (&& counts as 1)
+            return 0;
+
+        } else if (threat == ThreatLevel.HIGH) { // Decision 2
+            return 1;
+
+        } else if (threat == ThreatLevel.MEDIUM && snr > 3.0) { // Decision 3 (&& counts as 1)
+            return 2;
+
+        } else {
+            return 3;
+        }
+    }
+}
@@ -0,0 +1,160 @@
+package edu.tedu.radar;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Single-producer / multi-consumer ring of fixed-size detection records in one direct
+// (off-heap) buffer, for handing sweeps to several consumer threads without a Detection per
+// record. Every consumer sees every record, in publish order, through its own sequence
+// cursor; the producer waits only when the slowest consumer is a full ring behind.
+//
+// Record layout (RECORD_BYTES, native order):
+//   long sweep, int targetIdHandle, int row, double distanceKm, double bearingDeg, double snr, byte threat
+// Ids travel as TargetIdDictionary handles (-1 for ids outside the dictionary).
+//
+// Sequences are release/acquire AtomicLongs: record bytes written before the producer
+// releases its cursor are visible to a consumer that acquired it, and a slot is only
+// rewritten after every consumer has released a cursor past it. A consumer may join while
+// the producer runs; it sees the records published after it registered.
+public class DetectionRing {
+    static final int RECORD_BYTES = 48;
+    private static final int SWEEP = 0, HANDLE = 8, ROW = 12, DISTANCE = 16, BEARING = 24, SNR = 32, THREAT = 40;
+    private static final ThreatLevel[] THREATS = ThreatLevel.values();
+
+    // Allocation-free read callback; one call per record.
+    @FunctionalInterface
+    public interface RecordHandler {
+        void onRecord(long sweep, int targetIdHandle, int row, double distanceKm, double bearingDeg, double snr, ThreatLevel threat);
+    }
+
+    private final ByteBuffer buffer;
+    private final int mask;
+    private final TargetIdDictionary ids;
+    private final WaitStrategy producerWait;
+    private final AtomicLong published = new AtomicLong(); // records visible to consumers
+    private final CopyOnWriteArrayList<Consumer> consumers = new CopyOnWriteArrayList<>();
+
+    // producer-only state
+    private long claimed;       // next sequence to write
+    private long gatingCache;   // last seen minimum consumer sequence
+    private long sweeps;
+
+    // capacity is rounded up to a power of two.
+    public DetectionRing(int capacity, TargetIdDictionary ids, WaitStrategy producerWait) {
+        if (capacity < 1 || capacity > (Integer.MAX_VALUE / RECORD_BYTES) || ids == null || producerWait == null)
+            throw new IllegalArgumentException("Invalid parameters");
+        int slots = Integer.highestOneBit(capacity) == capacity ? capacity : Integer.highestOneBit(capacity) << 1;
+        if (slots > Integer.MAX_VALUE / RECORD_BYTES) throw new IllegalArgumentException("capacity too large");
+        this.buffer = ByteBuffer.allocateDirect(slots * RECORD_BYTES).order(ByteOrder.nativeOrder());
+        this.mask = slots - 1;
+        this.ids = ids;
+        this.producerWait = producerWait;
+    }
+
+    public int capacity(){ return mask + 1; }
+    public TargetIdDictionary getDictionary(){ return ids; }
+    public long getPublishedCount(){ return published.get(); }
+
+    // A consumer that starts with the next published record.
+    public Consumer newConsumer(WaitStrategy wait) {
+        if (wait == null) throw new IllegalArgumentException("wait strategy required");
+        // Register first, gating at a sequence that is already safe, then start at the records
+        // published since: a producer that sized its gap before the registration can only
+        // overwrite slots behind that second read.
+        Consumer c = new Consumer(wait, published.getAcquire());
+        consumers.add(c);
+        c.sequence.setRelease(published.getAcquire());
+        return c;
+    }
+
+    // Producer side: writes every detection of batch, in order, as the next sweep and returns
+    // its sweep number. Blocks (with the producer wait strategy) while the ring is full.
+    public long publish(DetectionBatch batch) throws InterruptedException {
+        long sweep = sweeps++;
+        int n = batch.size();
+        for (int i = 0; i < n; i++) {
+            long seq = claimed;
+            if (seq - gatingCache >= capacity()) awaitSpace(seq);
+            int at = (int) (seq & mask) * RECORD_BYTES;
+            int handle = batch.getTargetIdHandle(i);
+            if (handle < 0 || handle >= ids.size() || !ids.idOf(handle).equals(batch.getTargetId(i))) handle = ids.handleOf(batch.getTargetId(i));
+            buffer.putLong(at + SWEEP, sweep);
+            buffer.putInt(at + HANDLE, handle);
+            buffer.putInt(at + ROW, batch.getRow(i));
+            buffer.putDouble(at + DISTANCE, batch.getDistanceKm(i));
+            buffer.putDouble(at + BEARING, batch.getBearingDeg(i));
+            buffer.putDouble(at + SNR, batch.getSnr(i));
+            buffer.put(at + THREAT, (byte) batch.getThreat(i).ordinal());
+            claimed = seq + 1;
+            // publish in chunks so consumers can start before a large sweep is fully written
+            if ((claimed & 63) == 0) published.setRelease(claimed);
+        }
+        published.setRelease(claimed);
+        return sweep;
+    }
+
+    private void awaitSpace(long seq) throws InterruptedException {
+        // make everything written so far visible, or a consumer waiting on it could deadlock us
+        published.setRelease(claimed);
+        while (true) {
+            long min = seq;
+            for (Consumer c : consumers) min = Math.min(min, c.sequence.getAcquire());
+            gatingCache = min;
+            if (seq - min < capacity()) return;
+            if (Thread.interrupted()) throw new InterruptedException();
+            producerWait.idle();
+        }
+    }
+
+    // One reader's view of the ring. Each Consumer must be used by one thread at a time.
+    public final class Consumer implements AutoCloseable {
+        private final WaitStrategy wait;
+        private final AtomicLong sequence; // next record to read
+
+        private Consumer(WaitStrategy wait, long start) {
+            this.wait = wait;
+            this.sequence = new AtomicLong(start);
+        }
+
+        public long getSequence(){ return sequence.get(); }
+
+        // Records published but not yet read by this consumer.
+        public long available(){ return published.getAcquire() - sequence.get(); }
+
+        // Hands up to max available records to handler without waiting; returns how many.
+        public int poll(RecordHandler handler, int max) {
+            long next = sequence.get();
+            long end = Math.min(published.getAcquire(), next + max);
+            for (long seq = next; seq < end; seq++) {
+                int at = (int) (seq & mask) * RECORD_BYTES;
+                handler.onRecord(buffer.getLong(at + SWEEP), buffer.getInt(at + HANDLE), buffer.getInt(at + ROW),
+                        buffer.getDouble(at + DISTANCE), buffer.getDouble(at + BEARING), buffer.getDouble(at + SNR),
+                        THREATS[buffer.get(at + THREAT)]);
+            }
+            if (end > next) sequence.setRelease(end);
+            return (int) Math.max(end - next, 0);
+        }
+
+        // Waits with this consumer's strategy until at least one record is available, then polls.
+        public int take(RecordHandler handler, int max) throws InterruptedException {
+            if (max < 1) throw new IllegalArgumentException("max < 1");
+            while (available() == 0) {
+                if (Thread.interrupted()) throw new InterruptedException();
+                wait.idle();
+            }
+            return poll(handler, max);
+        }
+
+        // Resolves a record's handle through the ring's dictionary (null for -1).
+        public Detection toDetection(int targetIdHandle, double distanceKm, double bearingDeg, double snr, ThreatLevel threat) {
+            String id = targetIdHandle < 0 ? null : ids.idOf(targetIdHandle);
+            return new Detection(id, targetIdHandle, distanceKm, bearingDeg, snr, threat);
+        }
+
+        // Stops gating the producer; records not yet read are skipped.
+        @Override
+        public void close() { consumers.remove(this); }
+    }
+}
@@ -0,0 +1,23 @@
+package edu.tedu.radar;
+
+// One target as seen by a whole radar network: the strongest return plus the highest
+// threat any station assigned to it.
+public class FusedDetection {
+    private final String targetId;
+    private final Detection best;
+    private final String bestRadarId;
+    private final ThreatLevel threat;
+    private final int stationCount;
+
+    public FusedDetection(String targetId, Detection best, String bestRadarId, ThreatLevel threat, int stationCount) {
+        this.targetId = targetId; this.best = best; this.bestRadarId = bestRadarId;
+        this.threat = threat; this.stationCount = stationCount;
+    }
+
+    public String getTargetId(){ return targetId; }
+    public Detection getBest(){ return best; }               // detection with the best SNR
+    public String getBestRadarId(){ return bestRadarId; }
+    public double getSnr(){ return best.getSnr(); }
+    public ThreatLevel getThreat(){ return threat; }          // highest level over all stations
+    public int getStationCount(){ return stationCount; }      // number of detections fused
+}
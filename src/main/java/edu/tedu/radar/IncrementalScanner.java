@@ -0,0 +1,69 @@
+package edu.tedu.radar;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+// Stateful scanner that keeps the sorted detection set of a Radar up to date from target
+// deltas keyed by Target.getId(). A sweep only re-evaluates targets touched since the last
+// sweep, so its cost follows the delta size rather than the population. Not thread-safe.
+public class IncrementalScanner {
+    private static final Comparator<Detection> BY_ID = Comparator.comparing(Detection::getTargetId);
+
+    private final Radar radar;
+    private final Map<String, Target> targets = new HashMap<>();
+    private final TreeMap<String, Detection> detections = new TreeMap<>();
+    private final Map<String, Target> pending = new LinkedHashMap<>(); // null value = removal
+
+    public IncrementalScanner(Radar radar) {
+        if (radar == null) throw new IllegalArgumentException("radar == null");
+        this.radar = radar;
+    }
+
+    // Adds a new target or replaces the one with the same id.
+    public void upsert(Target target) {
+        if (target == null || target.getId() == null) throw new IllegalArgumentException("Target id required");
+        pending.put(target.getId(), target);
+    }
+
+    public void remove(String targetId) {
+        if (targetId == null) throw new IllegalArgumentException("Target id required");
+        pending.put(targetId, null);
+    }
+
+    public SweepDelta sweep() {
+        List<Detection> added = new ArrayList<>(), dropped = new ArrayList<>(), changed = new ArrayList<>();
+        for (Map.Entry<String, Target> e : pending.entrySet()) {
+            String id = e.getKey();
+            Target t = e.getValue();
+            if (t == null) targets.remove(id); else targets.put(id, t);
+
+            Detection before = detections.get(id);
+            Detection after = t == null ? null : radar.detect(t);
+            if (after == null) {
+                if (before != null) { detections.remove(id); dropped.add(before); }
+            } else {
+                detections.put(id, after);
+                if (before == null) added.add(after);
+                else if (before.getThreat() != after.getThreat()
+                        || Double.compare(before.getSnr(), after.getSnr()) != 0) changed.add(after);
+            }
+        }
+        pending.clear();
+        added.sort(BY_ID); dropped.sort(BY_ID); changed.sort(BY_ID);
+        return new SweepDelta(added, dropped, changed);
+    }
+
+    // Current detections in targetId order, i.e. what radar.scan would return for the
+    // target set as of the last sweep. Live read-only view.
+    public Collection<Detection> getDetections(){ return Collections.unmodifiableCollection(detections.values()); }
+    public int getTargetCount(){ return targets.size(); }
+    public int getPendingCount(){ return pending.size(); }
+    public Radar getRadar(){ return radar; }
+}
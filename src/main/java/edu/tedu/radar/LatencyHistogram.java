@@ -0,0 +1,63 @@
+package edu.tedu.radar;
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+// Log2-bucketed latency histogram in nanoseconds. Buckets are LongAdders, so concurrent
+// recorders do not contend; percentiles are reported as the upper bound of the bucket
+// that holds them (within a factor of two of the true value).
+public class LatencyHistogram {
+    private static final int BUCKETS = 64;
+
+    private final LongAdder[] buckets = new LongAdder[BUCKETS];
+    private final LongAdder count = new LongAdder();
+    private final LongAdder total = new LongAdder();
+    private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+    public LatencyHistogram() {
+        for (int i = 0; i < BUCKETS; i++) buckets[i] = new LongAdder();
+    }
+
+    public void record(long nanos) {
+        long v = Math.max(nanos, 0);
+        buckets[64 - Long.numberOfLeadingZeros(v)].increment(); // bit length, 0..63
+        count.increment();
+        total.add(v);
+        max.accumulate(v);
+    }
+
+    public long getCount(){ return count.sum(); }
+    public long getMaxNanos(){ return max.get(); }
+    public double getMeanNanos() {
+        long n = count.sum();
+        return n == 0 ? 0 : (double) total.sum() / n;
+    }
+
+    // q in [0, 1]; 0 when nothing was recorded
+    public long percentileNanos(double q) {
+        if (q < 0 || q > 1) throw new IllegalArgumentException("q must be in [0, 1]");
+        long[] snapshot = new long[BUCKETS];
+        long n = 0;
+        for (int i = 0; i < BUCKETS; i++) n += snapshot[i] = buckets[i].sum();
+        if (n == 0) return 0;
+        long rank = Math.max(1, (long) Math.ceil(q * n));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += snapshot[i];
+            if (seen >= rank) return Math.min(upperBound(i), max.get());
+        }
+        return max.get();
+    }
+
+    public void reset() {
+        for (LongAdder b : buckets) b.reset();
+        count.reset();
+        total.reset();
+        max.reset();
+    }
+
+    // bucket i holds values with bit length i: 0 -> {0}, 1 -> {1}, 2 -> [2, 3], ...
+    private static long upperBound(int bucket) {
+        return bucket == 0 ? 0 : bucket >= 63 ? Long.MAX_VALUE : (1L << bucket) - 1;
+    }
+}
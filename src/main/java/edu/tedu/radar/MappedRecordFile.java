@@ -0,0 +1,126 @@
+package edu.tedu.radar;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+// Read side of the fixed-record files. Layout, all little-endian:
+//
+//   header (32 bytes)  int magic, short version, short recordBytes, long recordCount,
+//                      int idCount, int reserved, long dictionaryOffset
+//   records            recordCount * recordBytes, starting at byte 32
+//   dictionary         idCount * (int utf8Length, utf8 bytes); length -1 encodes a null id
+//
+// Records are mapped read-only in chunks of whole records (one MappedByteBuffer is limited to
+// 2 GB); the dictionary is the only part copied onto the heap. Opening checks every record's
+// idRef (and threat byte, where the kind has one), so readers can index ids and ThreatLevel
+// values without a corrupt file surfacing as an ArrayIndexOutOfBoundsException later.
+class MappedRecordFile implements Closeable {
+    static final ByteOrder ORDER = ByteOrder.LITTLE_ENDIAN;
+    static final int HEADER_BYTES = 32;
+    static final short VERSION = 1;
+    static final int TARGET_MAGIC = 0x54475452;    // "RTGT" read little-endian
+    static final int DETECTION_MAGIC = 0x54454452; // "RDET" read little-endian
+    static final int SWEEP_MAGIC = 0x50575352;     // "RSWP" read little-endian
+    static final int TARGET_RECORD_BYTES = 4 + 8 * 3;          // idRef, x, y, rcs
+    static final int DETECTION_RECORD_BYTES = 4 + 8 * 3 + 1;   // idRef, distance, bearing, snr, threat
+    static final int SWEEP_RECORD_BYTES = 8 + 4 + 4 + 8 * 3 + 1; // timestamp, ordinal, idRef, distance, bearing, snr, threat
+
+    private final FileChannel channel;
+    private final int recordBytes;
+    private final int recordCount;
+    private final int recordsPerChunk;
+    private final MappedByteBuffer[] chunks;
+    private final String[] ids;
+
+    // idOffset / threatOffset: position of the idRef int and the threat byte in a record (-1: none)
+    MappedRecordFile(Path file, int expectedMagic, int expectedRecordBytes, int idOffset, int threatOffset) throws IOException {
+        channel = FileChannel.open(file, StandardOpenOption.READ);
+        try {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ORDER);
+            while (header.hasRemaining() && channel.read(header, header.position()) > 0) { }
+            if (header.hasRemaining()) throw new IOException("Truncated header: " + file);
+            header.flip();
+            if (header.getInt() != expectedMagic) throw new IOException("Not a radar record file of this kind: " + file);
+            if (header.getShort() != VERSION) throw new IOException("Unsupported version: " + file);
+            recordBytes = header.getShort();
+            if (recordBytes != expectedRecordBytes) throw new IOException("Unexpected record size " + recordBytes);
+            long count = header.getLong();
+            int idCount = header.getInt();
+            header.getInt();
+            long dictionaryOffset = header.getLong();
+            if (count < 0 || count > Integer.MAX_VALUE) throw new IOException("Record count out of range: " + count);
+            if (dictionaryOffset != HEADER_BYTES + count * recordBytes || dictionaryOffset > channel.size())
+                throw new IOException("Corrupt record file: " + file);
+            recordCount = (int) count;
+
+            recordsPerChunk = Integer.MAX_VALUE / recordBytes;
+            int chunkCount = (int) ((count + recordsPerChunk - 1) / recordsPerChunk);
+            chunks = new MappedByteBuffer[chunkCount];
+            for (int c = 0; c < chunkCount; c++) {
+                long first = (long) c * recordsPerChunk;
+                long n = Math.min(recordsPerChunk, count - first);
+                chunks[c] = channel.map(FileChannel.MapMode.READ_ONLY, HEADER_BYTES + first * recordBytes, n * recordBytes);
+                chunks[c].order(ORDER);
+            }
+
+            ids = new String[idCount];
+            MappedByteBuffer dict = channel.map(FileChannel.MapMode.READ_ONLY, dictionaryOffset, channel.size() - dictionaryOffset);
+            dict.order(ORDER);
+            try {
+                for (int i = 0; i < idCount; i++) {
+                    int len = dict.getInt();
+                    if (len < 0) continue;
+                    byte[] utf8 = new byte[len];
+                    dict.get(utf8);
+                    ids[i] = new String(utf8, StandardCharsets.UTF_8);
+                }
+            } catch (BufferUnderflowException | NegativeArraySizeException e) {
+                throw new IOException("Corrupt dictionary: " + file, e);
+            }
+            validate(file, idOffset, threatOffset);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    int recordCount(){ return recordCount; }
+    int recordsPerChunk(){ return recordsPerChunk; }
+    ByteBuffer chunk(int c){ return chunks[c]; }
+    int chunkCount(){ return chunks.length; }
+    int recordBytes(){ return recordBytes; }
+    String[] ids(){ return ids; }
+
+    private void validate(Path file, int idOffset, int threatOffset) throws IOException {
+        int levels = ThreatLevel.values().length;
+        for (int r = 0; r < recordCount; r++) {
+            ByteBuffer chunk = chunkOf(r);
+            int at = offsetOf(r);
+            int ref = chunk.getInt(at + idOffset);
+            if (ref < 0 || ref >= ids.length) throw new IOException("Corrupt record " + r + ", idRef " + ref + ": " + file);
+            if (threatOffset >= 0) {
+                int threat = chunk.get(at + threatOffset);
+                if (threat < 0 || threat >= levels) throw new IOException("Corrupt record " + r + ", threat " + threat + ": " + file);
+            }
+        }
+    }
+
+    // absolute byte offset of a record inside its chunk
+    int offsetOf(int record){ return (record % recordsPerChunk) * recordBytes; }
+    ByteBuffer chunkOf(int record){ return chunks[record / recordsPerChunk]; }
+
+    void checkRecord(int record) {
+        if (record < 0 || record >= recordCount) throw new IndexOutOfBoundsException("record " + record + " of " + recordCount);
+    }
+
+    @Override
+    public void close() throws IOException { channel.close(); }
+}
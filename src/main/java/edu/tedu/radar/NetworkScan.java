@@ -0,0 +1,24 @@
+package edu.tedu.radar;
+
+import java.util.List;
+
+// Result of RadarNetwork.scan: per-station detections in network order plus the fused picture.
+public class NetworkScan {
+    private final List<Radar> radars;
+    private final List<List<Detection>> perStation;
+    private final List<FusedDetection> fused;
+
+    NetworkScan(List<Radar> radars, List<List<Detection>> perStation, List<FusedDetection> fused) {
+        this.radars = radars; this.perStation = perStation; this.fused = fused;
+    }
+
+    // Exactly what radars.get(station).scan(targets) returns.
+    public List<Detection> getDetections(int station){ return perStation.get(station); }
+    public List<Detection> getDetections(Radar radar) {
+        int station = radars.indexOf(radar);
+        if (station < 0) throw new IllegalArgumentException("Radar not in network");
+        return perStation.get(station);
+    }
+    public List<FusedDetection> getFused(){ return fused; } // sorted by targetId
+    public int stationCount(){ return radars.size(); }
+}
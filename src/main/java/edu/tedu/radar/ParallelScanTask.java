@@ -0,0 +1,77 @@
+package edu.tedu.radar;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+
+// Fork-join scan: each partition is scanned (and sorted) on its own, then the sorted
+// partitions are k-way merged. Ties on targetId go to the lower partition, which is
+// exactly the order the stable sort in the sequential scan produces. Partitions never record
+// metrics themselves: with a tally each counts into its own, folded into the root's after
+// the join, so Radar.scanParallel records the sweep once. Tasks are never serialized (the
+// fields are transient only because ForkJoinTask is Serializable).
+class ParallelScanTask extends RecursiveTask<List<Detection>> {
+    private static final long serialVersionUID = 1L;
+
+    private final transient Radar radar;
+    private final transient List<Target> targets;
+    private final transient ScanMetrics.Tally tally; // null: unmetered
+    private final int from, to, leafSize;
+    private long mergeStartNanos;
+
+    ParallelScanTask(Radar radar, List<Target> targets, int leafSize, ScanMetrics.Tally tally) {
+        this(radar, targets, 0, targets.size(), leafSize, tally);
+    }
+
+    private ParallelScanTask(Radar radar, List<Target> targets, int from, int to, int leafSize, ScanMetrics.Tally tally) {
+        this.radar = radar; this.targets = targets; this.from = from; this.to = to; this.leafSize = leafSize;
+        this.tally = tally;
+    }
+
+    // when the partitions were done and the merge began (valid after compute)
+    long mergeStartNanos(){ return mergeStartNanos; }
+
+    @Override
+    protected List<Detection> compute() {
+        if (to - from <= leafSize) {
+            mergeStartNanos = System.nanoTime();
+            return radar.scanUnmetered(TargetBatch.perRow(targets.subList(from, to)), new DetectionBatch(), tally).toDetections();
+        }
+        List<ParallelScanTask> parts = new ArrayList<>();
+        for (int start = from; start < to; start += leafSize) {
+            parts.add(new ParallelScanTask(radar, targets, start, Math.min(to, start + leafSize), leafSize,
+                    tally == null ? null : new ScanMetrics.Tally()));
+        }
+        ForkJoinTask.invokeAll(parts);
+        List<List<Detection>> sorted = new ArrayList<>(parts.size());
+        for (ParallelScanTask part : parts) {
+            sorted.add(part.join());
+            if (tally != null) tally.add(part.tally);
+        }
+        mergeStartNanos = System.nanoTime();
+        return merge(sorted);
+    }
+
+    static List<Detection> merge(List<List<Detection>> partitions) {
+        int total = 0;
+        for (List<Detection> p : partitions) total += p.size();
+        List<Detection> merged = new ArrayList<>(total);
+        // cursor = {partition, position}
+        PriorityQueue<int[]> heap = new PriorityQueue<>(Math.max(1, partitions.size()),
+                Comparator.<int[], String>comparing(c -> partitions.get(c[0]).get(c[1]).getTargetId())
+                        .thenComparingInt(c -> c[0]));
+        for (int p = 0; p < partitions.size(); p++) {
+            if (!partitions.get(p).isEmpty()) heap.add(new int[]{p, 0});
+        }
+        while (!heap.isEmpty()) {
+            int[] c = heap.poll();
+            List<Detection> part = partitions.get(c[0]);
+            merged.add(part.get(c[1]));
+            if (++c[1] < part.size()) heap.add(c);
+        }
+        return merged;
+    }
+}
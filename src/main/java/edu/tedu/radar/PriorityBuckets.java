@@ -0,0 +1,68 @@
+package edu.tedu.radar;
+
+import java.util.Arrays;
+import java.util.List;
+
+// Groups one sweep's detections by DetectionPriority as int offsets into the detection array
+// (a DetectionBatch or a List), using a two-pass counting sort over reused buffers, so a
+// warmed-up instance classifies a sweep without allocating. indexes() is laid out bucket by
+// bucket, PRIORITY_1_INTERCEPT first, so reading it front to back drains the intercept queue
+// in priority order; inside a bucket the original (targetId) order is kept.
+public class PriorityBuckets {
+    private static final int BUCKETS = DetectionPriority.values().length;
+
+    private int[] indexes = new int[16];
+    private byte[] priorities = new byte[16];
+    private final int[] start = new int[BUCKETS + 1]; // bucket p = indexes[start[p] .. start[p + 1])
+    private int size;
+
+    public PriorityBuckets classify(DetectionBatch detections) {
+        int n = detections.size();
+        prepare(n);
+        for (int i = 0; i < n; i++) {
+            priorities[i] = (byte) DetectionPriority.ordinalOf(detections.getThreat(i), detections.getDistanceKm(i), detections.getSnr(i));
+        }
+        fill(n);
+        return this;
+    }
+
+    public PriorityBuckets classify(List<Detection> detections) {
+        int n = detections.size();
+        prepare(n);
+        for (int i = 0; i < n; i++) {
+            Detection d = detections.get(i);
+            priorities[i] = (byte) DetectionPriority.ordinalOf(d.getThreat(), d.getDistanceKm(), d.getSnr());
+        }
+        fill(n);
+        return this;
+    }
+
+    public int size(){ return size; }
+    public int count(DetectionPriority p){ return start[p.ordinal() + 1] - start[p.ordinal()]; }
+    public int from(DetectionPriority p){ return start[p.ordinal()]; }           // first slot of the bucket in indexes()
+    public int to(DetectionPriority p){ return start[p.ordinal() + 1]; }         // one past the last slot
+    public int get(DetectionPriority p, int k) {
+        if (k < 0 || k >= count(p)) throw new IndexOutOfBoundsException(p + " slot " + k);
+        return indexes[start[p.ordinal()] + k];
+    }
+    // Backing array, valid up to size(); do not modify.
+    public int[] indexes(){ return indexes; }
+
+    private void prepare(int n) {
+        if (indexes.length < n) {
+            indexes = new int[Math.max(n, indexes.length * 2)];
+            priorities = new byte[indexes.length];
+        }
+        Arrays.fill(start, 0);
+        size = n;
+    }
+
+    private void fill(int n) {
+        for (int i = 0; i < n; i++) start[priorities[i] + 1]++;
+        for (int p = 0; p < BUCKETS; p++) start[p + 1] += start[p];
+        // start[p] doubles as the write cursor, then is shifted back
+        for (int i = 0; i < n; i++) indexes[start[priorities[i]]++] = i;
+        for (int p = BUCKETS; p > 0; p--) start[p] = start[p - 1];
+        start[0] = 0;
+    }
+}
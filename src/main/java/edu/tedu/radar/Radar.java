@@ -3,37 +3,328 @@ package edu.tedu.radar;
 import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.List;
+import java.util.RandomAccess;
+import java.util.concurrent.ForkJoinPool;
 import java.util.function.Predicate;
 
 public class Radar {
+    // below this many targets the fork/merge overhead outweighs the parallel speed-up
+    static final int DEFAULT_PARALLEL_THRESHOLD = 16_384;
+    // outcomes of the single-target gate
+    static final int DETECTED = 0, OUT_OF_RANGE = 1, BELOW_SNR = 2;
+
     private final String id;
     private final double maxRangeKm;
     private final double snrThreshold;
+    private final double x, y; // station position, same km frame as Target
+    private final ScanMetrics metrics; // null = not instrumented
+    private final BearingMode bearingMode;
 
     public Radar(String id, double maxRangeKm, double snrThreshold) {
+        this(id, maxRangeKm, snrThreshold, 0, 0);
+    }
+
+    public Radar(String id, double maxRangeKm, double snrThreshold, double x, double y) {
+        this(id, maxRangeKm, snrThreshold, x, y, null, BearingMode.EXACT);
+    }
+
+    private Radar(String id, double maxRangeKm, double snrThreshold, double x, double y,
+                  ScanMetrics metrics, BearingMode bearingMode) {
         if (maxRangeKm <= 0 || snrThreshold < 0) throw new IllegalArgumentException("Invalid parameters");
+        if (!Double.isFinite(x) || !Double.isFinite(y)) throw new IllegalArgumentException("Invalid position");
         this.id = id;
         this.maxRangeKm = maxRangeKm;
         this.snrThreshold = snrThreshold;
+        this.x = x;
+        this.y = y;
+        this.metrics = metrics;
+        this.bearingMode = bearingMode == null ? BearingMode.EXACT : bearingMode;
+    }
+
+    // Same radar, reporting every scan into metrics (null switches instrumentation off).
+    public Radar withMetrics(ScanMetrics metrics) {
+        return new Radar(id, maxRangeKm, snrThreshold, x, y, metrics, bearingMode);
+    }
+
+    // Same radar with another bearing computation; FAST trades up to
+    // FastBearing.MAX_ERROR_DEG of bearing accuracy for a table lookup instead of atan2.
+    public Radar withBearingMode(BearingMode bearingMode) {
+        return new Radar(id, maxRangeKm, snrThreshold, x, y, metrics, bearingMode);
     }
 
     public List<Detection> scan(List<Target> targets) {
+        List<Detection> detections = scan(TargetBatch.perRow(targets), new DetectionBatch()).toDetections();
+        if (metrics != null) metrics.recordMaterialized(detections.size());
+        return detections;
+    }
+
+    // Same output as scan(List), computed on the common pool for large target lists.
+    public List<Detection> scanParallel(List<Target> targets) {
+        return scanParallel(targets, ForkJoinPool.commonPool(), DEFAULT_PARALLEL_THRESHOLD);
+    }
+
+    public List<Detection> scanParallel(List<Target> targets, ForkJoinPool pool) {
+        return scanParallel(targets, pool, DEFAULT_PARALLEL_THRESHOLD);
+    }
+
+    // Lists smaller than threshold (or a single-threaded pool) take the sequential path.
+    public List<Detection> scanParallel(List<Target> targets, ForkJoinPool pool, int threshold) {
+        if (threshold < 1) throw new IllegalArgumentException("Invalid threshold");
+        int n = targets.size();
+        if (n < threshold || pool.getParallelism() < 2) return scan(targets);
+        List<Target> indexed = targets instanceof RandomAccess ? targets : new ArrayList<>(targets);
+        int leafSize = Math.max(threshold / 2, (n + pool.getParallelism() * 4 - 1) / (pool.getParallelism() * 4));
+        // partitions scan unmetered into their own tallies; the sweep is recorded once here
+        ScanMetrics.Tally tally = newTally();
+        ParallelScanTask task = new ParallelScanTask(this, indexed, leafSize, tally);
+        List<Detection> detections = pool.invoke(task);
+        if (tally != null) record(tally, task.mergeStartNanos(), detections.size());
+        return detections;
+    }
+
+    // --- query scans: bounded selection instead of materialising and sorting every detection ---
+
+    // The k detections with the highest SNR, best first (ties by targetId, then list order).
+    public List<Detection> topKBySnr(List<Target> targets, int k) {
+        return select(targets, k, true, null);
+    }
+
+    // The k nearest detections, nearest first (ties by targetId, then list order).
+    public List<Detection> nearest(List<Target> targets, int k) {
+        return select(targets, k, false, null);
+    }
+
+    // The k nearest detections that pass filter, e.g. d -> d.getPriority() == PRIORITY_1_INTERCEPT.
+    public List<Detection> nearest(List<Target> targets, int k, Predicate<Detection> filter) {
+        return select(targets, k, false, filter);
+    }
+
+    // Only detections at or above minimum, in the same targetId order as scan(). Targets go
+    // through the gate one at a time; only the survivors are built and sorted.
+    public List<Detection> scanAtLeast(List<Target> targets, ThreatLevel minimum) {
+        ScanMetrics.Tally tally = newTally();
         List<Detection> detections = new ArrayList<>();
         for (Target t : targets) {
-            double distance = distanceKm(0, 0, t.getX(), t.getY());
+            Detection d = detect(t, tally);
+            if (d != null && d.getThreat().compareTo(minimum) >= 0) detections.add(d);
+        }
+        long sortStart = System.nanoTime();
+        detections.sort(Comparator.comparing(Detection::getTargetId));
+        if (tally != null) record(tally, sortStart, detections.size());
+        return detections;
+    }
+
+    // One target at a time through the gate, straight into the bounded selection: O(k) memory
+    // beyond the target list. seq (list order) breaks ties after targetId.
+    private List<Detection> select(List<Target> targets, int k, boolean bySnr, Predicate<Detection> filter) {
+        if (k < 0) throw new IllegalArgumentException("k < 0");
+        ScanMetrics.Tally tally = newTally();
+        // smaller key = better, so SNR is negated
+        BoundedSelection selection = new BoundedSelection(k, bySnr ? d -> -d.getSnr() : Detection::getDistanceKm);
+        long seq = 0;
+        for (Target t : targets) {
+            Detection d = detect(t, tally);
+            if (d == null) continue;
+            seq++;
+            if (selection.mayAccept(bySnr ? -d.getSnr() : d.getDistanceKm()) && (filter == null || filter.test(d))) selection.offer(d, seq);
+        }
+        long sortStart = System.nanoTime();
+        List<Detection> selected = selection.drainSorted();
+        if (tally != null) record(tally, sortStart, selected.size());
+        return selected;
+    }
+
+    // A tally for one sweep of this radar, or null when it has no metrics.
+    ScanMetrics.Tally newTally() {
+        return metrics == null ? null : new ScanMetrics.Tally(metrics);
+    }
+
+    // Records the sweep counted into tally, and the Detection objects built for it.
+    void record(ScanMetrics.Tally tally, long sortStart, int materialized) {
+        metrics.recordScan(id, tally, sortStart, System.nanoTime());
+        if (materialized > 0) metrics.recordMaterialized(materialized);
+    }
+
+    // Counts one outcome of the batch gate; a detection is the last row of out.
+    static void count(ScanMetrics.Tally tally, int outcome, DetectionBatch out) {
+        tally.examined++;
+        if (outcome == OUT_OF_RANGE) tally.outOfRange++;
+        else if (outcome == BELOW_SNR) tally.belowSnr++;
+        else tally.threats[out.getThreat(out.size() - 1).ordinal()]++;
+    }
+
+    // Columnar scan: same range, SNR and threat rules as scan(List), no per-target allocation
+    // once the output batch has grown to the sweep size.
+    public DetectionBatch scan(TargetBatch targets, DetectionBatch out) {
+        if (metrics == null) return scanUnmetered(targets, out, null);
+        return gate(targets, null, targets.size(), out);
+    }
+
+    // scan without recording a sweep; with a tally the gate outcomes are counted into it for
+    // the caller to record (ParallelScanTask partitions), otherwise the vector kernel may run.
+    DetectionBatch scanUnmetered(TargetBatch targets, DetectionBatch out, ScanMetrics.Tally tally) {
+        if (tally == null && VectorScanSupport.AVAILABLE && Double.isFinite(maxRangeKm)
+                && targets.size() >= VectorScanSupport.MIN_TARGETS) {
+            out.reset(targets.idTable(), targets.idHandles());
+            VectorScanKernel.gate(this, targets, out);
+        } else {
+            gateRows(targets, null, targets.size(), out, tally);
+        }
+        targets.sortByTargetId(out);
+        return out;
+    }
+
+    // Scans into scratch and publishes the sweep to ring for its consumers; returns the sweep number.
+    // The gate cannot write into the ring's slots itself: records go out in targetId order,
+    // known only once every target has been gated, and a sweep may be larger than the ring
+    // (publish streams it out in chunks while consumers drain), so it cannot be sorted in place
+    // there. The copy is one sequential pass over the survivors only.
+    public long scan(TargetBatch targets, DetectionBatch scratch, DetectionRing ring) throws InterruptedException {
+        return ring.publish(scan(targets, scratch));
+    }
+
+    // Adaptive-threshold (CFAR) scan: a target is detected when its SNR reaches its cell's
+    // threshold, max(snrThreshold, cfar level), and its threat level is classified against
+    // that same threshold. Every in-range return then updates its cell's noise estimate, so
+    // successive calls with the same cfar adapt to the clutter of recent sweeps. With no
+    // history yet the output equals scan(targets).
+    public List<Detection> scanAdaptive(List<Target> targets, AdaptiveThreshold cfar) {
+        List<Detection> detections = scanAdaptive(TargetBatch.perRow(targets), new DetectionBatch(), cfar).toDetections();
+        if (metrics != null) metrics.recordMaterialized(detections.size());
+        return detections;
+    }
+
+    public DetectionBatch scanAdaptive(TargetBatch targets, DetectionBatch out, AdaptiveThreshold cfar) {
+        // cells sized for another range would put every return in the wrong range ring
+        if (cfar == null || Double.compare(cfar.getMaxRangeKm(), maxRangeKm) != 0)
+            throw new IllegalArgumentException("AdaptiveThreshold not built for this radar's range");
+        ScanMetrics.Tally tally = newTally();
+        double[] xs = targets.xs(), ys = targets.ys(), rcs = targets.rcsColumn();
+        int[] idRefs = targets.idRefs();
+        out.reset(targets.idTable(), targets.idHandles());
+        for (int row = 0; row < targets.size(); row++) {
+            double distance = distanceKm(x, y, xs[row], ys[row]);
+            int outcome = OUT_OF_RANGE;
             if (distance <= maxRangeKm) {
-                double snr = t.getRcs() / (1.0 + distance);
-                if (snr >= snrThreshold) {
-                    double bearing = bearingDeg(0, 0, t.getX(), t.getY());
-                    ThreatLevel level = snr > snrThreshold * 2 ? ThreatLevel.HIGH :
-                            snr > snrThreshold * 1.2 ? ThreatLevel.MEDIUM :
-                                    ThreatLevel.LOW;
-                    detections.add(new Detection(t.getId(), distance, bearing, snr, level));
+                double snr = rcs[row] / (1.0 + distance);
+                double bearing = bearing(xs[row], ys[row]);
+                int cell = cfar.cellOf(distance, bearing);
+                double threshold = Math.max(snrThreshold, cfar.level(cell));
+                cfar.observe(cell, snr);
+                outcome = BELOW_SNR;
+                if (snr >= threshold) {
+                    out.add(row, idRefs[row], distance, bearing, snr, classify(snr, threshold));
+                    outcome = DETECTED;
                 }
             }
+            if (tally != null) count(tally, outcome, out);
         }
-        detections.sort(Comparator.comparing(Detection::getTargetId));
-        return detections;
+        cfar.endSweep();
+        long sortStart = System.nanoTime();
+        targets.sortByTargetId(out);
+        if (tally != null) record(tally, sortStart, 0);
+        return out;
+    }
+
+    // CFAR state with cells laid out over this radar's coverage disc, for scanAdaptive.
+    public AdaptiveThreshold newAdaptiveThreshold(int rangeCells, int bearingCells, double alpha, double scale) {
+        return new AdaptiveThreshold(maxRangeKm, rangeCells, bearingCells, alpha, scale);
+    }
+
+    // The scalar path regardless of SIMD support; reference for the vector kernel.
+    DetectionBatch scanScalar(TargetBatch targets, DetectionBatch out) {
+        return gate(targets, null, targets.size(), out);
+    }
+
+    // Range-gated scan: only rows in grid cells overlapping the range circle are examined.
+    // Output is identical to scan(grid.getBatch(), out).
+    public DetectionBatch scan(TargetGrid grid, DetectionBatch out) {
+        TargetBatch targets = grid.getBatch();
+        if (!Double.isFinite(maxRangeKm)) return scan(targets, out);
+        int count = grid.collectWithin(x, y, maxRangeKm, out);
+        return gate(targets, out.candidateBuffer(count), count, out);
+    }
+
+    // Gates rows[0..count) of targets (every row when rows is null) and sorts the survivors.
+    private DetectionBatch gate(TargetBatch targets, int[] rows, int count, DetectionBatch out) {
+        ScanMetrics.Tally tally = newTally();
+        gateRows(targets, rows, count, out, tally);
+        long sortStart = System.nanoTime();
+        targets.sortByTargetId(out);
+        if (tally != null) {
+            // rows the grid pruned never reach the gate but are out of range all the same
+            tally.examined += targets.size() - count;
+            tally.outOfRange += targets.size() - count;
+            metrics.recordScan(id, tally, sortStart, System.nanoTime());
+        }
+        return out;
+    }
+
+    // The gate loop, unsorted; counts each outcome into tally when there is one.
+    private void gateRows(TargetBatch targets, int[] rows, int count, DetectionBatch out, ScanMetrics.Tally tally) {
+        double[] xs = targets.xs(), ys = targets.ys(), rcs = targets.rcsColumn();
+        int[] idRefs = targets.idRefs();
+        out.reset(targets.idTable(), targets.idHandles());
+        if (tally == null) {
+            for (int i = 0; i < count; i++) {
+                int row = rows == null ? i : rows[i];
+                detect(row, idRefs[row], xs[row], ys[row], rcs[row], out);
+            }
+            return;
+        }
+        for (int i = 0; i < count; i++) {
+            int row = rows == null ? i : rows[i];
+            count(tally, detect(row, idRefs[row], xs[row], ys[row], rcs[row], out), out);
+        }
+    }
+
+    // Object form of the gate for callers that evaluate targets one at a time; null when
+    // the target is out of range or below threshold.
+    Detection detect(Target t) { return detect(t, null); }
+
+    // Same, counting the outcome into tally when there is one.
+    Detection detect(Target t, ScanMetrics.Tally tally) {
+        if (tally != null) tally.examined++;
+        double distance = distanceKm(x, y, t.getX(), t.getY());
+        if (distance <= maxRangeKm) {
+            double snr = t.getRcs() / (1.0 + distance);
+            if (snr >= snrThreshold) {
+                ThreatLevel level = classify(snr);
+                if (tally != null) tally.threats[level.ordinal()]++;
+                return new Detection(t.getId(), t.getIdHandle(), distance, bearing(t.getX(), t.getY()), snr, level);
+            }
+            if (tally != null) tally.belowSnr++;
+        } else if (tally != null) {
+            tally.outOfRange++;
+        }
+        return null;
+    }
+
+    // Single-target gate shared by the scan paths; appends to out when the target qualifies
+    // and returns DETECTED, OUT_OF_RANGE or BELOW_SNR.
+    int detect(int row, int idRef, double tx, double ty, double rcs, DetectionBatch out) {
+        double distance = distanceKm(x, y, tx, ty);
+        if (distance <= maxRangeKm) {
+            double snr = rcs / (1.0 + distance);
+            if (snr >= snrThreshold) {
+                out.add(row, idRef, distance, bearing(tx, ty), snr, classify(snr));
+                return DETECTED;
+            }
+            return BELOW_SNR;
+        }
+        return OUT_OF_RANGE;
+    }
+
+    private double bearing(double tx, double ty) {
+        return bearingMode == BearingMode.FAST ? FastBearing.bearingDeg(tx - x, ty - y) : bearingDeg(x, y, tx, ty);
+    }
+
+    ThreatLevel classify(double snr) { return classify(snr, snrThreshold); }
+
+    static ThreatLevel classify(double snr, double threshold) {
+        return snr > threshold * 2 ? ThreatLevel.HIGH :
+                snr > threshold * 1.2 ? ThreatLevel.MEDIUM :
+                        ThreatLevel.LOW;
     }
 
     // helpers (package-private) – good for parameterized testing
@@ -46,4 +337,8 @@ public class Radar {
     public String getId() { return id; }
     public double getMaxRangeKm() { return maxRangeKm; }
     public double getSnrThreshold() { return snrThreshold; }
+    public double getX() { return x; }
+    public double getY() { return y; }
+    public ScanMetrics getMetrics() { return metrics; }
+    public BearingMode getBearingMode() { return bearingMode; }
 }
@@ -0,0 +1,90 @@
+package edu.tedu.radar;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Scans one target picture with many radars in a single pass over the targets: every
+// target row is loaded once and gated against all stations while it is hot in cache.
+public class RadarNetwork {
+    private final List<Radar> radars;
+
+    public RadarNetwork(List<Radar> radars) {
+        if (radars == null || radars.isEmpty()) throw new IllegalArgumentException("No radars");
+        this.radars = List.copyOf(radars);
+    }
+
+    public List<Radar> getRadars(){ return radars; }
+
+    public NetworkScan scan(List<Target> targets) {
+        return scan(TargetBatch.of(targets));
+    }
+
+    public NetworkScan scan(TargetBatch targets) {
+        int stations = radars.size();
+        Radar[] rs = radars.toArray(new Radar[0]);
+        DetectionBatch[] outs = new DetectionBatch[stations];
+        for (int s = 0; s < stations; s++) {
+            outs[s] = new DetectionBatch();
+            outs[s].reset(targets.idTable(), targets.idHandles());
+        }
+
+        // stations with metrics count their own sweep; the pass itself is shared
+        ScanMetrics.Tally[] tallies = new ScanMetrics.Tally[stations];
+        boolean metered = false;
+        for (int s = 0; s < stations; s++) {
+            tallies[s] = rs[s].newTally();
+            metered |= tallies[s] != null;
+        }
+
+        double[] xs = targets.xs(), ys = targets.ys(), rcs = targets.rcsColumn();
+        int[] idRefs = targets.idRefs();
+        for (int row = 0, n = targets.size(); row < n; row++) {
+            double x = xs[row], y = ys[row], r = rcs[row];
+            int ref = idRefs[row];
+            if (!metered) {
+                for (int s = 0; s < stations; s++) rs[s].detect(row, ref, x, y, r, outs[s]);
+                continue;
+            }
+            for (int s = 0; s < stations; s++) {
+                int outcome = rs[s].detect(row, ref, x, y, r, outs[s]);
+                if (tallies[s] != null) Radar.count(tallies[s], outcome, outs[s]);
+            }
+        }
+
+        long sortStart = System.nanoTime();
+        int[] ranks = targets.idRanks();
+        List<List<Detection>> perStation = new ArrayList<>(stations);
+        for (int s = 0; s < stations; s++) {
+            outs[s].sortByTargetId(ranks);
+            perStation.add(outs[s].toDetections());
+            if (tallies[s] != null) rs[s].record(tallies[s], sortStart, outs[s].size());
+        }
+        return new NetworkScan(radars, perStation, fuse(targets, ranks, outs, perStation));
+    }
+
+    // Best SNR wins the detection (first station on ties); threat is the max over stations.
+    private List<FusedDetection> fuse(TargetBatch targets, int[] ranks, DetectionBatch[] outs, List<List<Detection>> perStation) {
+        int ids = targets.idCount();
+        int[] count = new int[ids], bestStation = new int[ids], bestIndex = new int[ids];
+        ThreatLevel[] threat = new ThreatLevel[ids];
+        for (int s = 0; s < outs.length; s++) {
+            DetectionBatch out = outs[s];
+            for (int i = 0; i < out.size(); i++) {
+                int ref = out.getIdRef(i);
+                if (count[ref]++ == 0 || out.getSnr(i) > outs[bestStation[ref]].getSnr(bestIndex[ref])) {
+                    bestStation[ref] = s; bestIndex[ref] = i;
+                }
+                if (threat[ref] == null || out.getThreat(i).compareTo(threat[ref]) > 0) threat[ref] = out.getThreat(i);
+            }
+        }
+        int[] byRank = new int[ids];
+        for (int ref = 0; ref < ids; ref++) byRank[ranks[ref]] = ref;
+        List<FusedDetection> fused = new ArrayList<>();
+        for (int ref : byRank) {
+            if (count[ref] == 0) continue;
+            Detection best = perStation.get(bestStation[ref]).get(bestIndex[ref]);
+            fused.add(new FusedDetection(best.getTargetId(), best, radars.get(bestStation[ref]).getId(), threat[ref], count[ref]));
+        }
+        return fused;
+    }
+}
@@ -0,0 +1,95 @@
+package edu.tedu.radar;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Shared streaming writer for the fixed-record files (see MappedRecordFile for the layout).
+// Records go through one reusable buffer; the id dictionary and the header are written on close.
+abstract class RecordFileWriter implements Closeable {
+    private static final int BUFFER_BYTES = 1 << 16;
+
+    private final FileChannel channel;
+    private final int magic, recordBytes;
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_BYTES).order(MappedRecordFile.ORDER);
+    private final Map<String, Integer> dictionary = new HashMap<>();
+    private final List<String> ids = new ArrayList<>();
+    private int nullRef = -1;
+    private long records;
+    private boolean closed;
+
+    RecordFileWriter(Path file, int magic, int recordBytes) throws IOException {
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+        this.magic = magic;
+        this.recordBytes = recordBytes;
+        channel.position(MappedRecordFile.HEADER_BYTES);
+    }
+
+    public long recordCount(){ return records; }
+
+    // Buffer positioned at a fresh record of recordBytes bytes.
+    ByteBuffer beginRecord() throws IOException {
+        if (closed) throw new IllegalStateException("writer closed");
+        if (buffer.remaining() < recordBytes) flush();
+        records++;
+        return buffer;
+    }
+
+    int intern(String id) {
+        if (id == null) {
+            if (nullRef < 0) { nullRef = ids.size(); ids.add(null); }
+            return nullRef;
+        }
+        Integer ref = dictionary.get(id);
+        if (ref != null) return ref;
+        dictionary.put(id, ids.size());
+        ids.add(id);
+        return ids.size() - 1;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (closed) return;
+        try {
+            flush();
+            long dictionaryOffset = channel.position();
+            for (String id : ids) {
+                byte[] utf8 = id == null ? null : id.getBytes(StandardCharsets.UTF_8);
+                if (buffer.remaining() < 4 + (utf8 == null ? 0 : utf8.length)) flush();
+                if (utf8 == null) {
+                    buffer.putInt(-1);
+                } else if (utf8.length + 4 > buffer.capacity()) {
+                    buffer.putInt(utf8.length);
+                    flush();
+                    ByteBuffer big = ByteBuffer.wrap(utf8);
+                    while (big.hasRemaining()) channel.write(big);
+                } else {
+                    buffer.putInt(utf8.length).put(utf8);
+                }
+            }
+            flush();
+            ByteBuffer header = ByteBuffer.allocate(MappedRecordFile.HEADER_BYTES).order(MappedRecordFile.ORDER);
+            header.putInt(magic).putShort(MappedRecordFile.VERSION).putShort((short) recordBytes)
+                    .putLong(records).putInt(ids.size()).putInt(0).putLong(dictionaryOffset).flip();
+            while (header.hasRemaining()) channel.write(header, MappedRecordFile.HEADER_BYTES - header.remaining());
+        } finally {
+            closed = true;
+            channel.close();
+        }
+    }
+
+    private void flush() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) channel.write(buffer);
+        buffer.clear();
+    }
+}
@@ -0,0 +1,184 @@
+package edu.tedu.radar;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+// Bounded cache in front of Radar.scan for repeated sweeps of the same picture (dashboards
+// polling an unchanged target list). Entries are keyed by the radar's scan parameters, the
+// target count and a fingerprint of the targets, and keep an immutable snapshot of the targets
+// they were computed from. A hit is confirmed against that snapshot, so a fingerprint
+// collision only costs a miss. The confirmation is O(1) for an unchanged TargetSet, whose
+// asList() is the snapshot itself, and one lookup per target for an edited one (any order);
+// a List is compared element by element, by reference first.
+// Eviction is least-recently-used past maxEntries, and entries expire ttl after they were
+// computed. Hits return the same immutable list every time.
+public class ScanCache {
+    private final int maxEntries;
+    private final long ttlNanos;
+    private final LongSupplier clock;
+    private final LinkedHashMap<Key, Entry> entries = new LinkedHashMap<>(16, 0.75f, true); // guarded by this
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public ScanCache(int maxEntries, Duration ttl) { this(maxEntries, ttl, System::nanoTime); }
+
+    ScanCache(int maxEntries, Duration ttl, LongSupplier clock) {
+        if (maxEntries < 1 || ttl == null || ttl.isNegative() || ttl.isZero())
+            throw new IllegalArgumentException("Invalid parameters");
+        this.maxEntries = maxEntries;
+        this.ttlNanos = ttl.toNanos();
+        this.clock = clock;
+    }
+
+    // Same detections as radar.scan(targets), as an immutable list. The sweep itself runs
+    // outside the lock, so concurrent misses on different keys scan in parallel.
+    public List<Detection> scan(Radar radar, List<Target> targets) {
+        return scan(radar, targets, null, new Key(radar, targets.size(), fingerprint(targets), false));
+    }
+
+    // Same for a delta-maintained picture: the key comes from the set's running fingerprint,
+    // and an unchanged set confirms a hit without a compare. targets must not change while the
+    // call runs.
+    public List<Detection> scan(Radar radar, TargetSet targets) {
+        return scan(radar, targets.asList(), targets, new Key(radar, targets.size(), targets.fingerprint(), true));
+    }
+
+    // set is the source of targets, or null for a plain list.
+    private List<Detection> scan(Radar radar, List<Target> targets, TargetSet set, Key key) {
+        long now = clock.getAsLong();
+        synchronized (this) {
+            Entry e = entries.get(key);
+            if (e != null && now - e.createdNanos < ttlNanos && e.matches(targets, set)) {
+                hits.increment();
+                return e.detections;
+            }
+            if (e != null && now - e.createdNanos >= ttlNanos) { entries.remove(key); evictions.increment(); }
+        }
+        misses.increment();
+        // copyOf returns an already immutable list (a TargetSet snapshot) as it is
+        Entry fresh = new Entry(List.copyOf(targets), Collections.unmodifiableList(radar.scan(targets)), now);
+        synchronized (this) {
+            entries.put(key, fresh);
+            evictOverflow(now);
+        }
+        return fresh.detections;
+    }
+
+    public synchronized void invalidateAll() { entries.clear(); }
+
+    public synchronized int size(){ return entries.size(); }
+    public long getHitCount(){ return hits.sum(); }
+    public long getMissCount(){ return misses.sum(); }
+    public long getEvictionCount(){ return evictions.sum(); }
+
+    public double getHitRatio() {
+        long h = hits.sum(), total = h + misses.sum();
+        return total == 0 ? 0.0 : (double) h / total;
+    }
+
+    // Order-sensitive hash over every field scan reads: equal lists always agree, and a moved,
+    // added or edited target changes it with high probability. One pass, no allocation.
+    static long fingerprint(List<Target> targets) {
+        long h = 0x9E3779B97F4A7C15L ^ targets.size();
+        for (Target t : targets) {
+            h = mix(h ^ Objects.hashCode(t.getId()) ^ ((long) t.getIdHandle() << 32));
+            h = mix(h ^ Double.doubleToLongBits(t.getX()));
+            h = mix(h ^ Double.doubleToLongBits(t.getY()));
+            h = mix(h ^ Double.doubleToLongBits(t.getRcs()));
+        }
+        return h;
+    }
+
+    // expired entries first (oldest-accessed order), then least recently used
+    private void evictOverflow(long now) {
+        Iterator<Entry> it = entries.values().iterator();
+        while (it.hasNext() && (entries.size() > maxEntries || expiredHead(now))) {
+            it.next();
+            it.remove();
+            evictions.increment();
+        }
+    }
+
+    private boolean expiredHead(long now) {
+        return !entries.isEmpty() && now - entries.values().iterator().next().createdNanos >= ttlNanos;
+    }
+
+    static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    private static boolean sameTarget(Target a, Target b) {
+        return a == b || (Objects.equals(a.getId(), b.getId()) && a.getIdHandle() == b.getIdHandle()
+                && Double.doubleToLongBits(a.getX()) == Double.doubleToLongBits(b.getX())
+                && Double.doubleToLongBits(a.getY()) == Double.doubleToLongBits(b.getY())
+                && Double.doubleToLongBits(a.getRcs()) == Double.doubleToLongBits(b.getRcs()));
+    }
+
+    private static final class Entry {
+        final List<Target> snapshot;
+        final List<Detection> detections;
+        final long createdNanos;
+
+        Entry(List<Target> snapshot, List<Detection> detections, long createdNanos) {
+            this.snapshot = snapshot; this.detections = detections; this.createdNanos = createdNanos;
+        }
+
+        boolean matches(List<Target> targets, TargetSet set) {
+            if (snapshot == targets) return true;
+            if (snapshot.size() != targets.size()) return false;
+            if (set != null) {
+                // ids are unique on both sides (the key keeps set entries apart from list entries)
+                for (Target t : snapshot) {
+                    Target now = set.get(t.getId());
+                    if (now == null || !sameTarget(t, now)) return false;
+                }
+                return true;
+            }
+            Iterator<Target> it = targets.iterator();
+            for (Target t : snapshot) if (!sameTarget(t, it.next())) return false;
+            return true;
+        }
+    }
+
+    // Everything Radar.scan depends on; metrics do not change the output and are left out.
+    private static final class Key {
+        final String radarId;
+        final long range, threshold, x, y;
+        final BearingMode bearingMode;
+        final int size;
+        final long fingerprint;
+        final boolean fromSet;
+
+        Key(Radar radar, int size, long fingerprint, boolean fromSet) {
+            radarId = radar.getId();
+            range = Double.doubleToLongBits(radar.getMaxRangeKm());
+            threshold = Double.doubleToLongBits(radar.getSnrThreshold());
+            x = Double.doubleToLongBits(radar.getX());
+            y = Double.doubleToLongBits(radar.getY());
+            bearingMode = radar.getBearingMode();
+            this.size = size;
+            this.fingerprint = fingerprint;
+            this.fromSet = fromSet;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Key k)) return false;
+            return fingerprint == k.fingerprint && size == k.size && fromSet == k.fromSet && range == k.range && threshold == k.threshold
+                    && x == k.x && y == k.y && bearingMode == k.bearingMode && Objects.equals(radarId, k.radarId);
+        }
+
+        @Override
+        public int hashCode() { return Long.hashCode(fingerprint * 31 + range) ^ Objects.hashCode(radarId); }
+    }
+}
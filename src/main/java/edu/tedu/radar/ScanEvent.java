@@ -0,0 +1,25 @@
+package edu.tedu.radar;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+// JFR event committed once per instrumented scan. Costs a disabled-check when no recording
+// has enabled it.
+@Name("edu.tedu.radar.Scan")
+@Label("Radar Scan")
+@Category({"Radar"})
+@Description("One Radar sweep with its gating and sorting breakdown")
+class ScanEvent extends jdk.jfr.Event {
+    @Label("Radar") String radarId;
+    @Label("Targets Examined") long targetsExamined;
+    @Label("Rejected By Range") long rejectedByRange;
+    @Label("Rejected By SNR") long rejectedBySnr;
+    @Label("HIGH Detections") long high;
+    @Label("MEDIUM Detections") long medium;
+    @Label("LOW Detections") long low;
+    @Label("Sort Time") @Timespan(Timespan.NANOSECONDS) long sortNanos;
+    @Label("Allocated Bytes") long allocatedBytes;
+}
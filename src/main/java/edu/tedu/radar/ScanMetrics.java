@@ -0,0 +1,143 @@
+package edu.tedu.radar;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.LongAdder;
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+// Optional hot-path counters for Radar, attached with Radar.withMetrics(). Radars without
+// metrics skip every bit of this. Counters are LongAdders (striped per contending thread),
+// so one instance can be shared by radars scanning concurrently.
+//
+// Every sweep is recorded once, whichever path scans it: the List, batch, grid and query
+// scans, scanParallel, scanAdaptive, each station of a RadarNetwork, TargetFileReader.scan
+// and each window of a windowed StreamingScanner. The unwindowed streaming forms record
+// nothing, as a plain stream has no sweep to report; a window's scan latency spans the
+// arrival of its targets, and its allocation is not measured (it may fill on many threads).
+public class ScanMetrics implements ScanMetricsMXBean {
+    private static final com.sun.management.ThreadMXBean THREADS = allocationTracker();
+
+    private final LongAdder scans = new LongAdder();
+    private final LongAdder examined = new LongAdder();
+    private final LongAdder rejectedByRange = new LongAdder();
+    private final LongAdder rejectedBySnr = new LongAdder();
+    private final LongAdder[] detections = new LongAdder[ThreatLevel.values().length];
+    private final LongAdder materialized = new LongAdder();
+    private final LongAdder allocatedBytes = new LongAdder();
+    private final LatencyHistogram scanLatency = new LatencyHistogram();
+    private final LatencyHistogram sortLatency = new LatencyHistogram();
+
+    public ScanMetrics() {
+        for (int i = 0; i < detections.length; i++) detections[i] = new LongAdder();
+    }
+
+    // Registers this instance under edu.tedu.radar:type=ScanMetrics,name=<name>.
+    public ObjectName register(String name) {
+        try {
+            ObjectName objectName = new ObjectName("edu.tedu.radar:type=ScanMetrics,name=" + ObjectName.quote(name));
+            ManagementFactory.getPlatformMBeanServer().registerMBean(this, objectName);
+            return objectName;
+        } catch (JMException e) {
+            throw new IllegalStateException("Cannot register ScanMetrics " + name, e);
+        }
+    }
+
+    public void unregister(ObjectName name) {
+        try {
+            ManagementFactory.getPlatformMBeanServer().unregisterMBean(name);
+        } catch (JMException e) {
+            throw new IllegalStateException("Cannot unregister " + name, e);
+        }
+    }
+
+    // --- recording (called by Radar) ---
+
+    long startAllocation() { return THREADS == null ? 0 : THREADS.getCurrentThreadAllocatedBytes(); }
+
+    // One sweep, from the gate outcomes counted into t.
+    void recordScan(String radarId, Tally t, long sortStartNanos, long endNanos) {
+        int targets = t.examined, outOfRange = t.outOfRange, belowSnr = t.belowSnr;
+        int high = t.threats[ThreatLevel.HIGH.ordinal()], medium = t.threats[ThreatLevel.MEDIUM.ordinal()],
+                low = t.threats[ThreatLevel.LOW.ordinal()];
+        long startNanos = t.startNanos;
+        long allocated = THREADS == null ? 0 : t.allocationStart < 0 ? 0 : Math.max(0, THREADS.getCurrentThreadAllocatedBytes() - t.allocationStart);
+        scans.increment();
+        examined.add(targets);
+        rejectedByRange.add(outOfRange);
+        rejectedBySnr.add(belowSnr);
+        detections[ThreatLevel.HIGH.ordinal()].add(high);
+        detections[ThreatLevel.MEDIUM.ordinal()].add(medium);
+        detections[ThreatLevel.LOW.ordinal()].add(low);
+        allocatedBytes.add(allocated);
+        scanLatency.record(endNanos - startNanos);
+        sortLatency.record(endNanos - sortStartNanos);
+
+        ScanEvent event = new ScanEvent();
+        if (event.shouldCommit()) {
+            event.radarId = radarId;
+            event.targetsExamined = targets;
+            event.rejectedByRange = outOfRange;
+            event.rejectedBySnr = belowSnr;
+            event.high = high; event.medium = medium; event.low = low;
+            event.sortNanos = endNanos - sortStartNanos;
+            event.allocatedBytes = allocated;
+            event.commit();
+        }
+    }
+
+    void recordMaterialized(int count) { materialized.add(count); }
+
+    // Gate outcomes of one sweep, filled in by Radar as it examines targets.
+    static final class Tally {
+        final long startNanos = System.nanoTime();
+        final long allocationStart;
+        int examined, outOfRange, belowSnr;
+        final int[] threats = new int[ThreatLevel.values().length];
+
+        Tally(ScanMetrics metrics) { allocationStart = metrics.startAllocation(); }
+        Tally() { allocationStart = -1; } // allocation not measured
+
+        // Folds in the counts of a partition scanned elsewhere (the allocation of other threads is not seen).
+        void add(Tally other) {
+            examined += other.examined; outOfRange += other.outOfRange; belowSnr += other.belowSnr;
+            for (int i = 0; i < threats.length; i++) threats[i] += other.threats[i];
+        }
+    }
+
+    // --- reading ---
+
+    public long getScans(){ return scans.sum(); }
+    public long getTargetsExamined(){ return examined.sum(); }
+    public long getRejectedByRange(){ return rejectedByRange.sum(); }
+    public long getRejectedBySnr(){ return rejectedBySnr.sum(); }
+    public long getDetections(ThreatLevel level){ return detections[level.ordinal()].sum(); }
+    public long getHighDetections(){ return getDetections(ThreatLevel.HIGH); }
+    public long getMediumDetections(){ return getDetections(ThreatLevel.MEDIUM); }
+    public long getLowDetections(){ return getDetections(ThreatLevel.LOW); }
+    public long getDetectionsMaterialized(){ return materialized.sum(); }   // Detection objects built by the List API
+    public long getAllocatedBytes(){ return allocatedBytes.sum(); }         // 0 when the JVM cannot measure it
+    public LatencyHistogram getScanLatency(){ return scanLatency; }
+    public LatencyHistogram getSortLatency(){ return sortLatency; }
+    public long getScanLatencyP50Nanos(){ return scanLatency.percentileNanos(0.5); }
+    public long getScanLatencyP99Nanos(){ return scanLatency.percentileNanos(0.99); }
+    public long getScanLatencyMaxNanos(){ return scanLatency.getMaxNanos(); }
+    public long getSortLatencyP50Nanos(){ return sortLatency.percentileNanos(0.5); }
+    public long getSortLatencyP99Nanos(){ return sortLatency.percentileNanos(0.99); }
+
+    public void reset() {
+        scans.reset(); examined.reset(); rejectedByRange.reset(); rejectedBySnr.reset();
+        for (LongAdder d : detections) d.reset();
+        materialized.reset(); allocatedBytes.reset();
+        scanLatency.reset(); sortLatency.reset();
+    }
+
+    private static com.sun.management.ThreadMXBean allocationTracker() {
+        try {
+            if (ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean t
+                    && t.isThreadAllocatedMemorySupported() && t.isThreadAllocatedMemoryEnabled()) return t;
+        } catch (LinkageError | UnsupportedOperationException e) {
+            // not a HotSpot-style JVM: allocation bytes stay at 0
+        }
+        return null;
+    }
+}
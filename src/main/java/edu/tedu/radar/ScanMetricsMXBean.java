@@ -0,0 +1,20 @@
+package edu.tedu.radar;
+
+// JMX view of ScanMetrics, registered with ScanMetrics.register().
+public interface ScanMetricsMXBean {
+    long getScans();
+    long getTargetsExamined();
+    long getRejectedByRange();
+    long getRejectedBySnr();
+    long getHighDetections();
+    long getMediumDetections();
+    long getLowDetections();
+    long getDetectionsMaterialized();
+    long getAllocatedBytes();
+    long getScanLatencyP50Nanos();
+    long getScanLatencyP99Nanos();
+    long getScanLatencyMaxNanos();
+    long getSortLatencyP50Nanos();
+    long getSortLatencyP99Nanos();
+    void reset();
+}
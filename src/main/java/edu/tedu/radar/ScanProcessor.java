@@ -0,0 +1,195 @@
+package edu.tedu.radar;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.Flow;
+
+// Flow.Processor behind StreamingScanner.processor(). Upstream is only asked for more
+// targets (requestBatch at a time) once every ready detection has been handed downstream
+// and downstream still has demand, so buffered state never exceeds one window plus one
+// request batch. Single downstream subscriber; signals are serialised by a drain loop.
+class ScanProcessor implements Flow.Processor<Target, Detection> {
+    private static final Comparator<Detection> BY_ID = Comparator.comparing(Detection::getTargetId);
+
+    private final Radar radar;
+    private final int windowSize; // 0 = unwindowed
+    private final int requestBatch;
+
+    private final ArrayDeque<Detection> ready = new ArrayDeque<>();
+    private final List<Detection> window = new ArrayList<>();
+    private int windowTargets;
+    private ScanMetrics.Tally tally; // counts of the open window, when the radar has metrics
+
+    private Flow.Subscription upstream;
+    private Flow.Subscriber<? super Detection> downstream;
+    private long demand, outstanding;
+    private boolean upstreamDone, terminated, cancelled;
+    private Throwable error;
+    private int wip;
+
+    ScanProcessor(Radar radar, int windowSize, int requestBatch) {
+        this.radar = radar; this.windowSize = windowSize; this.requestBatch = requestBatch;
+    }
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super Detection> subscriber) {
+        if (subscriber == null) throw new NullPointerException("subscriber");
+        boolean accepted;
+        synchronized (this) {
+            accepted = downstream == null;
+            if (accepted) downstream = subscriber;
+        }
+        if (!accepted) {
+            subscriber.onSubscribe(new Flow.Subscription() {
+                public void request(long n) {}
+                public void cancel() {}
+            });
+            subscriber.onError(new IllegalStateException("ScanProcessor supports a single subscriber"));
+            return;
+        }
+        subscriber.onSubscribe(new Flow.Subscription() {
+            public void request(long n) { requestDownstream(n); }
+            public void cancel() { cancelDownstream(); }
+        });
+        drain();
+    }
+
+    @Override
+    public void onSubscribe(Flow.Subscription subscription) {
+        boolean accepted;
+        synchronized (this) {
+            accepted = upstream == null && !cancelled;
+            if (accepted) upstream = subscription;
+        }
+        if (!accepted) { subscription.cancel(); return; }
+        drain();
+    }
+
+    @Override
+    public void onNext(Target target) {
+        // onNext signals are serial, so only this thread touches the window's tally
+        if (windowSize > 0 && tally == null && radar.getMetrics() != null) tally = new ScanMetrics.Tally();
+        Detection d = radar.detect(target, windowSize == 0 ? null : tally);
+        synchronized (this) {
+            if (outstanding > 0) outstanding--;
+            if (cancelled) return;
+            if (windowSize == 0) {
+                if (d != null) ready.add(d);
+            } else {
+                if (d != null) window.add(d);
+                if (++windowTargets == windowSize) flushWindow();
+            }
+        }
+        drain();
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+        synchronized (this) {
+            error = throwable;
+            upstreamDone = true;
+            window.clear(); // an incomplete window is never emitted unsorted
+        }
+        drain();
+    }
+
+    @Override
+    public void onComplete() {
+        synchronized (this) {
+            upstreamDone = true;
+            if (windowSize > 0) flushWindow();
+        }
+        drain();
+    }
+
+    private void requestDownstream(long n) {
+        if (n <= 0) {
+            synchronized (this) {
+                if (error == null) error = new IllegalArgumentException("non-positive request: " + n);
+                upstreamDone = true;
+                ready.clear();
+            }
+            cancelUpstream();
+        } else {
+            synchronized (this) {
+                demand = demand + n < 0 ? Long.MAX_VALUE : demand + n;
+            }
+        }
+        drain();
+    }
+
+    private void cancelDownstream() {
+        synchronized (this) {
+            cancelled = true;
+            ready.clear();
+            window.clear();
+        }
+        cancelUpstream();
+    }
+
+    private void cancelUpstream() {
+        Flow.Subscription s;
+        synchronized (this) { s = upstream; }
+        if (s != null) s.cancel();
+    }
+
+    // Emits the window as one sweep, recorded when the radar has metrics.
+    private void flushWindow() {
+        long sortStart = System.nanoTime();
+        window.sort(BY_ID);
+        if (tally != null) {
+            radar.record(tally, sortStart, window.size());
+            tally = null;
+        }
+        ready.addAll(window);
+        window.clear();
+        windowTargets = 0;
+    }
+
+    private void drain() {
+        synchronized (this) {
+            if (wip++ != 0) return;
+        }
+        int missed = 1;
+        for (;;) {
+            for (;;) {
+                Detection next = null;
+                boolean complete = false;
+                Throwable failure = null;
+                long toRequest = 0;
+                Flow.Subscriber<? super Detection> sub;
+                Flow.Subscription up;
+                synchronized (this) {
+                    sub = downstream;
+                    up = upstream;
+                    if (cancelled || terminated || sub == null) break;
+                    if (demand > 0 && !ready.isEmpty()) {
+                        next = ready.poll();
+                        if (demand != Long.MAX_VALUE) demand--;
+                    } else if (ready.isEmpty() && upstreamDone) {
+                        terminated = true;
+                        complete = true;
+                        failure = error;
+                    } else if (ready.isEmpty() && demand > 0 && outstanding == 0 && up != null) {
+                        toRequest = requestBatch;
+                        outstanding = requestBatch;
+                    }
+                }
+                if (next != null) { sub.onNext(next); continue; }
+                if (complete) {
+                    if (failure != null) sub.onError(failure); else sub.onComplete();
+                    break;
+                }
+                if (toRequest > 0) up.request(toRequest);
+                break;
+            }
+            synchronized (this) {
+                wip -= missed;
+                if (wip == 0) return;
+                missed = wip;
+            }
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package edu.tedu.radar;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntConsumer;
+
+// Serves scan requests from many tenants, one virtual thread per request. Each tenant has at
+// most maxConcurrentPerTenant requests in flight; the rest wait on their own (cheap) virtual
+// threads. With a non-zero batching window, requests against the same Radar instance that
+// arrive within the window are coalesced into one columnar scan over all their targets and
+// the result is split back per request. Each request still gets exactly what radar.scan(targets)
+// returns. Latency (submit to completion) is recorded per tenant.
+public class ScanService implements AutoCloseable {
+    private final int maxConcurrentPerTenant;
+    private final long batchWindowNanos;
+    private final ExecutorService executor;
+    private final ConcurrentHashMap<String, Tenant> tenants = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Radar, Batch> openBatches = new ConcurrentHashMap<>();
+    private final IntConsumer joined; // size of the batch a request just opened (1) or joined
+
+    public ScanService(int maxConcurrentPerTenant, Duration batchWindow) {
+        this(maxConcurrentPerTenant, batchWindow, Thread.ofVirtual().factory(), size -> { });
+    }
+
+    // Package-private so tests can reach the request threads and follow the batching.
+    ScanService(int maxConcurrentPerTenant, Duration batchWindow, ThreadFactory threads, IntConsumer joined) {
+        if (maxConcurrentPerTenant < 1 || batchWindow == null || batchWindow.isNegative())
+            throw new IllegalArgumentException("Invalid parameters");
+        this.maxConcurrentPerTenant = maxConcurrentPerTenant;
+        this.batchWindowNanos = batchWindow.toNanos();
+        this.executor = Executors.newThreadPerTaskExecutor(threads);
+        this.joined = joined;
+    }
+
+    public CompletableFuture<List<Detection>> submit(String tenantId, Radar radar, List<Target> targets) {
+        if (tenantId == null || radar == null || targets == null) throw new IllegalArgumentException("tenant, radar and targets required");
+        Tenant tenant = tenants.computeIfAbsent(tenantId, id -> new Tenant(maxConcurrentPerTenant));
+        long submitted = System.nanoTime();
+        CompletableFuture<List<Detection>> result = new CompletableFuture<>();
+        executor.execute(() -> {
+            List<Detection> detections = null;
+            Throwable failure = null;
+            try {
+                tenant.permits.acquire();
+                try {
+                    detections = batchWindowNanos == 0 ? radar.scan(targets) : coalesce(radar, targets).join();
+                } finally {
+                    tenant.permits.release();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                failure = e;
+            } catch (CompletionException e) {
+                failure = e.getCause() != null ? e.getCause() : e;
+            } catch (Throwable e) {
+                failure = e;
+            }
+            // recorded before completion, so a caller that joined sees its own sample
+            tenant.latency.record(System.nanoTime() - submitted);
+            if (failure == null) result.complete(detections); else result.completeExceptionally(failure);
+        });
+        return result;
+    }
+
+    // Submit-to-completion latency of one tenant; null for tenants that never submitted.
+    public LatencyHistogram getLatency(String tenantId) {
+        Tenant tenant = tenants.get(tenantId);
+        return tenant == null ? null : tenant.latency;
+    }
+
+    // Waits for submitted requests to finish.
+    @Override
+    public void close() { executor.close(); }
+
+    // Joins the open batch for this radar, or opens one and leads it: the leader waits out the
+    // window, closes the batch and scans for everyone in it. An interrupted leader cuts the
+    // window short but still closes and scans the batch, since its followers wait on it, and
+    // keeps its interrupt status.
+    private CompletableFuture<List<Detection>> coalesce(Radar radar, List<Target> targets) {
+        Request request = new Request(targets);
+        Batch[] led = new Batch[1];
+        int[] size = new int[1];
+        openBatches.compute(radar, (r, open) -> {
+            if (open != null) { open.requests.add(request); size[0] = open.requests.size(); return open; }
+            Batch fresh = new Batch();
+            fresh.requests.add(request);
+            led[0] = fresh;
+            size[0] = 1;
+            return fresh;
+        });
+        joined.accept(size[0]);
+        if (led[0] != null) {
+            Batch batch = led[0];
+            try {
+                TimeUnit.NANOSECONDS.sleep(batchWindowNanos);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                openBatches.remove(radar, batch); // compute() serialises this with late joiners
+                run(radar, batch.requests);
+            }
+        }
+        return request.result;
+    }
+
+    private static void run(Radar radar, List<Request> requests) {
+        try {
+            int total = 0;
+            for (Request r : requests) total += r.targets.size();
+            TargetBatch combined = new TargetBatch(total);
+            int[] owner = new int[total];
+            for (int i = 0; i < requests.size(); i++) {
+                for (Target t : requests.get(i).targets) owner[combined.add(t.getId(), t.getIdHandle(), t.getX(), t.getY(), t.getRcs())] = i;
+            }
+            DetectionBatch out = radar.scan(combined, new DetectionBatch(total));
+
+            // the combined output is ordered by (targetId, row), so each request's share comes
+            // out in exactly the order its own scan would produce
+            List<List<Detection>> split = new ArrayList<>(requests.size());
+            for (int i = 0; i < requests.size(); i++) split.add(new ArrayList<>());
+            for (int i = 0; i < out.size(); i++) split.get(owner[out.getRow(i)]).add(out.toDetection(i));
+            for (int i = 0; i < requests.size(); i++) requests.get(i).result.complete(split.get(i));
+        } catch (Throwable e) {
+            for (Request r : requests) r.result.completeExceptionally(e);
+        }
+    }
+
+    private static final class Tenant {
+        final Semaphore permits;
+        final LatencyHistogram latency = new LatencyHistogram();
+        Tenant(int permits) { this.permits = new Semaphore(permits, true); }
+    }
+
+    private static final class Batch {
+        // only touched inside openBatches.compute until the leader removes the batch
+        final List<Request> requests = new ArrayList<>();
+    }
+
+    private static final class Request {
+        final List<Target> targets;
+        final CompletableFuture<List<Detection>> result = new CompletableFuture<>();
+        Request(List<Target> targets) { this.targets = targets; }
+    }
+}
@@ -0,0 +1,14 @@
+package edu.tedu.radar;
+
+// A detection read back from a SweepStore, with the timestamp of the sweep it belongs to.
+public class StoredDetection {
+    private final long timestampMillis;
+    private final Detection detection;
+
+    public StoredDetection(long timestampMillis, Detection detection) {
+        this.timestampMillis = timestampMillis; this.detection = detection;
+    }
+
+    public long getTimestampMillis(){ return timestampMillis; }
+    public Detection getDetection(){ return detection; }
+}
@@ -0,0 +1,88 @@
+package edu.tedu.radar;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.Flow;
+
+// Scans unbounded target feeds without materialising the sweep. Pull-based callers use the
+// Iterator forms; push-based feeds go through processor(), which only requests targets
+// from upstream as its own subscriber requests detections.
+//
+// Plain mode emits detections in arrival order. Windowed mode cuts the feed into windows of
+// windowSize targets and emits each window's detections sorted by targetId (stable, like
+// Radar.scan), so memory stays bounded by the window size.
+public class StreamingScanner {
+    static final int DEFAULT_REQUEST_BATCH = 256;
+
+    private final Radar radar;
+
+    public StreamingScanner(Radar radar) {
+        if (radar == null) throw new IllegalArgumentException("radar == null");
+        this.radar = radar;
+    }
+
+    public Iterator<Detection> scan(Iterator<Target> targets) {
+        return new WindowIterator(radar, targets, 1);
+    }
+
+    public Iterator<Detection> scanWindowed(Iterator<Target> targets, int windowSize) {
+        if (windowSize < 1) throw new IllegalArgumentException("Invalid window size");
+        return new WindowIterator(radar, targets, windowSize);
+    }
+
+    public Flow.Processor<Target, Detection> processor() {
+        return new ScanProcessor(radar, 0, DEFAULT_REQUEST_BATCH);
+    }
+
+    public Flow.Processor<Target, Detection> processor(int windowSize) {
+        if (windowSize < 1) throw new IllegalArgumentException("Invalid window size");
+        return new ScanProcessor(radar, windowSize, Math.min(windowSize, DEFAULT_REQUEST_BATCH));
+    }
+
+    public Radar getRadar(){ return radar; }
+
+    // Pulls up to windowSize targets at a time; a window of one is the plain lazy filter.
+    private static final class WindowIterator implements Iterator<Detection> {
+        private static final Comparator<Detection> BY_ID = Comparator.comparing(Detection::getTargetId);
+
+        private final Radar radar;
+        private final Iterator<Target> source;
+        private final int windowSize;
+        private final List<Detection> window = new ArrayList<>();
+        private int next;
+
+        WindowIterator(Radar radar, Iterator<Target> source, int windowSize) {
+            this.radar = radar; this.source = source; this.windowSize = windowSize;
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (next == window.size()) {
+                if (!source.hasNext()) return false;
+                window.clear();
+                next = 0;
+                // a window is one sweep for ScanMetrics; the plain filter records nothing
+                ScanMetrics.Tally tally = windowSize > 1 && radar.getMetrics() != null ? new ScanMetrics.Tally() : null;
+                for (int i = 0; i < windowSize && source.hasNext(); i++) {
+                    Detection d = radar.detect(source.next(), tally);
+                    if (d != null) window.add(d);
+                }
+                if (windowSize > 1) {
+                    long sortStart = System.nanoTime();
+                    window.sort(BY_ID);
+                    if (tally != null) radar.record(tally, sortStart, window.size());
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public Detection next() {
+            if (!hasNext()) throw new NoSuchElementException();
+            return window.get(next++);
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package edu.tedu.radar;
+
+import java.util.List;
+
+// What one incremental sweep changed, each list ordered by targetId.
+public class SweepDelta {
+    private final List<Detection> added;
+    private final List<Detection> dropped;
+    private final List<Detection> changed;
+
+    public SweepDelta(List<Detection> added, List<Detection> dropped, List<Detection> changed) {
+        this.added = List.copyOf(added); this.dropped = List.copyOf(dropped); this.changed = List.copyOf(changed);
+    }
+
+    public List<Detection> getAdded(){ return added; }      // newly detected targets
+    public List<Detection> getDropped(){ return dropped; }  // last known detection of targets no longer detected
+    public List<Detection> getChanged(){ return changed; }  // new detection of targets whose threat or SNR changed
+    public boolean isEmpty(){ return added.isEmpty() && dropped.isEmpty() && changed.isEmpty(); }
+}
@@ -0,0 +1,84 @@
+package edu.tedu.radar;
+
+import java.util.EnumSet;
+
+// Filter for SweepStore.query: a closed time range plus optional distance, bearing-sector and
+// threat constraints, e.g. all HIGH detections within 10 km in bearing 30-60 over the last hour:
+//   SweepQuery.between(now - 3_600_000, now).withinKm(10).bearingDeg(30, 60).threats(ThreatLevel.HIGH)
+// Instances are immutable; every refinement returns a new query.
+public final class SweepQuery {
+    private static final ThreatLevel[] LEVELS = ThreatLevel.values();
+
+    private final long fromMillis, toMillis;
+    private final double minKm, maxKm;
+    private final double fromDeg, toDeg; // NaN: any bearing
+    private final EnumSet<ThreatLevel> threats;
+
+    private SweepQuery(long fromMillis, long toMillis, double minKm, double maxKm, double fromDeg, double toDeg, EnumSet<ThreatLevel> threats) {
+        this.fromMillis = fromMillis; this.toMillis = toMillis;
+        this.minKm = minKm; this.maxKm = maxKm;
+        this.fromDeg = fromDeg; this.toDeg = toDeg;
+        this.threats = threats;
+    }
+
+    // Timestamps from fromMillis to toMillis, both inclusive.
+    public static SweepQuery between(long fromMillis, long toMillis) {
+        if (toMillis < fromMillis) throw new IllegalArgumentException("toMillis < fromMillis");
+        return new SweepQuery(fromMillis, toMillis, 0, Double.POSITIVE_INFINITY, Double.NaN, Double.NaN, EnumSet.allOf(ThreatLevel.class));
+    }
+
+    public static SweepQuery all() { return between(Long.MIN_VALUE, Long.MAX_VALUE); }
+
+    public SweepQuery distanceKm(double min, double max) {
+        if (!(min >= 0) || !(max >= min)) throw new IllegalArgumentException("Invalid distance range");
+        return new SweepQuery(fromMillis, toMillis, min, max, fromDeg, toDeg, threats);
+    }
+
+    public SweepQuery withinKm(double max) { return distanceKm(0, max); }
+
+    // Sector from fromDeg to toDeg, both inclusive, in Radar.bearingDeg's convention (degrees
+    // counter-clockwise from +x, i.e. east); wraps through 0 when fromDeg > toDeg (e.g. 350
+    // to 10 spans east). A span of 360 degrees or more means any bearing.
+    public SweepQuery bearingDeg(double fromDeg, double toDeg) {
+        if (!Double.isFinite(fromDeg) || !Double.isFinite(toDeg)) throw new IllegalArgumentException("Invalid bearing sector");
+        if (toDeg - fromDeg >= 360) return new SweepQuery(fromMillis, toMillis, minKm, maxKm, Double.NaN, Double.NaN, threats);
+        return new SweepQuery(fromMillis, toMillis, minKm, maxKm, normalize(fromDeg), normalize(toDeg), threats);
+    }
+
+    public SweepQuery threats(ThreatLevel first, ThreatLevel... more) {
+        return new SweepQuery(fromMillis, toMillis, minKm, maxKm, fromDeg, toDeg, EnumSet.of(first, more));
+    }
+
+    public SweepQuery atLeast(ThreatLevel minimum) {
+        return new SweepQuery(fromMillis, toMillis, minKm, maxKm, fromDeg, toDeg, EnumSet.range(minimum, ThreatLevel.HIGH));
+    }
+
+    public long getFromMillis(){ return fromMillis; }
+    public long getToMillis(){ return toMillis; }
+
+    boolean matches(long timestamp, double distance, double bearing, ThreatLevel threat) {
+        return timestamp >= fromMillis && timestamp <= toMillis
+                && distance >= minKm && distance <= maxKm
+                && threats.contains(threat) && inSector(bearing);
+    }
+
+    // Conservative: false only when no record of the bucket can match.
+    boolean mayContain(int bucket) {
+        if (!threats.contains(LEVELS[SweepStore.threatOf(bucket)])) return false;
+        int band = SweepStore.bandOf(bucket);
+        if (band < SweepStore.bandIndex(minKm) || band > SweepStore.bandIndex(maxKm)) return false;
+        if (Double.isNaN(fromDeg)) return true;
+        int sector = SweepStore.sectorOf(bucket), first = SweepStore.sectorIndex(fromDeg), last = SweepStore.sectorIndex(toDeg);
+        return fromDeg <= toDeg ? sector >= first && sector <= last : sector >= first || sector <= last;
+    }
+
+    private boolean inSector(double bearing) {
+        if (Double.isNaN(fromDeg)) return true;
+        return fromDeg <= toDeg ? bearing >= fromDeg && bearing <= toDeg : bearing >= fromDeg || bearing <= toDeg;
+    }
+
+    private static double normalize(double deg) {
+        double d = deg % 360;
+        return d < 0 ? d + 360 : d;
+    }
+}
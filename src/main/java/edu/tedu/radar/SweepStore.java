@@ -0,0 +1,373 @@
+package edu.tedu.radar;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// Append-only store of sweep results, partitioned by time (partitionSpan per partition) and,
+// inside every partition, bucketed by distance band x bearing sector x ThreatLevel. A query
+// visits only partitions overlapping its time range and, in those, only buckets its filter
+// can match; the exact test runs on the surviving records alone.
+//
+// New sweeps collect in memory; flush() seals them into segment files in the store directory
+// (the fixed-record format of MappedRecordFile, records grouped by bucket so every bucket is
+// one contiguous run). compact() merges the segments of each partition into one file. A
+// segment is named sweep-<partition>-<firstSeq>-<lastSeq>.seg; a merged segment covers the
+// sequence range of its inputs, so inputs left behind by an interrupted compaction are
+// recognised and dropped on open, as is a .seg.tmp file it never finished writing.
+//
+// Methods are synchronized: one writer, queries may come from any thread.
+public class SweepStore implements Closeable {
+    static final double BAND_KM = 5.0;
+    static final int BANDS = 4096; // the last band is open-ended
+    static final double SECTOR_DEG = 15.0;
+    static final int SECTORS = 24;
+    private static final int LEVELS = ThreatLevel.values().length;
+    private static final ThreatLevel[] THREATS = ThreatLevel.values();
+    private static final Pattern SEGMENT_NAME = Pattern.compile("sweep-(-?\\d+)-(\\d+)-(\\d+)\\.seg");
+
+    // sweep record field offsets (MappedRecordFile.SWEEP_RECORD_BYTES)
+    private static final int TIMESTAMP = 0, ORDINAL = 8, ID = 12, DISTANCE = 16, BEARING = 24, SNR = 32, THREAT = 40;
+
+    private final Path directory;
+    private final long spanMillis;
+    private final TreeMap<Long, Partition> partitions = new TreeMap<>();
+    private long nextSeq;
+    private boolean closed;
+
+    public SweepStore(Path directory, Duration partitionSpan) throws IOException {
+        if (directory == null || partitionSpan == null || partitionSpan.toMillis() < 1)
+            throw new IllegalArgumentException("Invalid parameters");
+        this.directory = directory;
+        this.spanMillis = partitionSpan.toMillis();
+        Files.createDirectories(directory);
+        open();
+    }
+
+    public synchronized void append(long timestampMillis, List<Detection> sweep) {
+        Memory memory = memoryFor(timestampMillis);
+        for (Detection d : sweep) {
+            memory.add(timestampMillis, d.getTargetId(), d.getDistanceKm(), d.getBearingDeg(), d.getSnr(), d.getThreat());
+        }
+    }
+
+    // Columnar form; no Detection objects are built.
+    public synchronized void append(long timestampMillis, DetectionBatch sweep) {
+        Memory memory = memoryFor(timestampMillis);
+        for (int i = 0; i < sweep.size(); i++) {
+            memory.add(timestampMillis, sweep.getTargetId(i), sweep.getDistanceKm(i), sweep.getBearingDeg(i), sweep.getSnr(i), sweep.getThreat(i));
+        }
+    }
+
+    // Matching detections ordered by timestamp, then append order.
+    public synchronized List<StoredDetection> query(SweepQuery q) {
+        checkOpen();
+        List<StoredDetection> out = new ArrayList<>();
+        long first = Math.floorDiv(q.getFromMillis(), spanMillis), last = Math.floorDiv(q.getToMillis(), spanMillis);
+        for (Partition p : partitions.subMap(first, true, last, true).values()) {
+            List<Hit> hits = new ArrayList<>();
+            for (int s = 0; s < p.segments.size(); s++) p.segments.get(s).collect(q, s, hits);
+            if (p.memory != null) p.memory.collect(q, p.segments.size(), hits);
+            hits.sort(Comparator.comparingLong((Hit h) -> h.timestamp).thenComparingInt(h -> h.source).thenComparingInt(h -> h.ordinal));
+            for (Hit h : hits) out.add(new StoredDetection(h.timestamp, h.detection));
+        }
+        return out;
+    }
+
+    public synchronized long size() {
+        long n = 0;
+        for (Partition p : partitions.values()) {
+            for (Segment s : p.segments) n += s.file.recordCount();
+            if (p.memory != null) n += p.memory.size;
+        }
+        return n;
+    }
+
+    public synchronized int partitionCount(){ return partitions.size(); }
+
+    public synchronized int segmentCount() {
+        int n = 0;
+        for (Partition p : partitions.values()) n += p.segments.size();
+        return n;
+    }
+
+    // Seals every in-memory partition into a new segment file.
+    public synchronized void flush() throws IOException {
+        checkOpen();
+        for (Map.Entry<Long, Partition> e : partitions.entrySet()) {
+            Partition p = e.getValue();
+            if (p.memory == null || p.memory.size == 0) continue;
+            long seq = nextSeq++;
+            Path file = write(e.getKey(), seq, seq, p.memory.records());
+            p.segments.add(new Segment(file, seq, seq));
+            p.memory = null;
+        }
+    }
+
+    // Flushes, then rewrites every partition with several segments as a single segment.
+    public synchronized void compact() throws IOException {
+        flush();
+        for (Map.Entry<Long, Partition> e : partitions.entrySet()) {
+            Partition p = e.getValue();
+            if (p.segments.size() < 2) continue;
+            List<Record> records = new ArrayList<>();
+            for (Segment s : p.segments) s.readAll(records);
+            long firstSeq = p.segments.get(0).firstSeq, lastSeq = p.segments.get(p.segments.size() - 1).lastSeq;
+            Path file = write(e.getKey(), firstSeq, lastSeq, records);
+            for (Segment s : p.segments) s.delete();
+            p.segments.clear();
+            p.segments.add(new Segment(file, firstSeq, lastSeq));
+        }
+    }
+
+    // Flushes pending sweeps and releases the segment files.
+    @Override
+    public synchronized void close() throws IOException {
+        if (closed) return;
+        flush();
+        for (Partition p : partitions.values()) for (Segment s : p.segments) s.file.close();
+        closed = true;
+    }
+
+    // --- bucket layout, shared with SweepQuery.mayContain ---
+
+    static int bucketOf(double distance, double bearing, ThreatLevel threat) {
+        return (bandIndex(distance) * SECTORS + sectorIndex(bearing)) * LEVELS + threat.ordinal();
+    }
+
+    // Both are monotonic in their argument, so a range test on the indexes never prunes a match.
+    static int bandIndex(double distance){ return distance >= 0 ? (int) Math.min(distance / BAND_KM, BANDS - 1) : 0; }
+    static int sectorIndex(double bearing){ return bearing >= 0 ? (int) Math.min(bearing / SECTOR_DEG, SECTORS - 1) : 0; }
+
+    static int bandOf(int bucket){ return bucket / (SECTORS * LEVELS); }
+    static int sectorOf(int bucket){ return bucket / LEVELS % SECTORS; }
+    static int threatOf(int bucket){ return bucket % LEVELS; }
+
+    // --- internals ---
+
+    private void open() throws IOException {
+        try (DirectoryStream<Path> dir = Files.newDirectoryStream(directory, "sweep-*.seg.tmp")) {
+            for (Path f : dir) Files.deleteIfExists(f);
+        }
+        List<Path> files = new ArrayList<>();
+        try (DirectoryStream<Path> dir = Files.newDirectoryStream(directory, "sweep-*.seg")) {
+            for (Path f : dir) if (SEGMENT_NAME.matcher(f.getFileName().toString()).matches()) files.add(f);
+        }
+        List<long[]> names = new ArrayList<>(); // partition, firstSeq, lastSeq
+        for (Path f : files) {
+            Matcher m = SEGMENT_NAME.matcher(f.getFileName().toString());
+            m.matches();
+            names.add(new long[] {Long.parseLong(m.group(1)), Long.parseLong(m.group(2)), Long.parseLong(m.group(3))});
+        }
+        for (int i = 0; i < files.size(); i++) {
+            long[] n = names.get(i);
+            if (supersededBy(n, names)) { Files.deleteIfExists(files.get(i)); continue; }
+            partitions.computeIfAbsent(n[0], k -> new Partition()).segments.add(new Segment(files.get(i), n[1], n[2]));
+            nextSeq = Math.max(nextSeq, n[2] + 1);
+        }
+        for (Partition p : partitions.values()) p.segments.sort(Comparator.comparingLong(s -> s.firstSeq));
+    }
+
+    // an input of a merge whose output was written but whose deletion did not happen
+    private static boolean supersededBy(long[] n, List<long[]> all) {
+        for (long[] o : all) {
+            if (o != n && o[0] == n[0] && o[1] <= n[1] && o[2] >= n[2] && (o[2] - o[1]) > (n[2] - n[1])) return true;
+        }
+        return false;
+    }
+
+    private Memory memoryFor(long timestampMillis) {
+        checkOpen();
+        Partition p = partitions.computeIfAbsent(Math.floorDiv(timestampMillis, spanMillis), k -> new Partition());
+        if (p.memory == null) p.memory = new Memory();
+        return p.memory;
+    }
+
+    // Writes records grouped by bucket (append order inside a bucket) via a temporary file,
+    // moved into place once complete.
+    private Path write(long partition, long firstSeq, long lastSeq, List<Record> records) throws IOException {
+        long[] keys = new long[records.size()];
+        for (int i = 0; i < keys.length; i++) {
+            Record r = records.get(i);
+            keys[i] = ((long) bucketOf(r.distance, r.bearing, r.threat) << 32) | i;
+        }
+        Arrays.sort(keys);
+        Path file = directory.resolve("sweep-" + partition + "-" + firstSeq + "-" + lastSeq + ".seg");
+        Path tmp = directory.resolve(file.getFileName() + ".tmp");
+        try (RecordFileWriter w = new RecordFileWriter(tmp, MappedRecordFile.SWEEP_MAGIC, MappedRecordFile.SWEEP_RECORD_BYTES) {}) {
+            for (long key : keys) {
+                int ordinal = (int) key;
+                Record r = records.get(ordinal);
+                ByteBuffer b = w.beginRecord();
+                b.putLong(r.timestamp).putInt(ordinal).putInt(w.intern(r.targetId))
+                        .putDouble(r.distance).putDouble(r.bearing).putDouble(r.snr).put((byte) r.threat.ordinal());
+            }
+        }
+        Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        return file;
+    }
+
+    private void checkOpen() {
+        if (closed) throw new IllegalStateException("SweepStore closed");
+    }
+
+    private static final class Partition {
+        final List<Segment> segments = new ArrayList<>(); // oldest first
+        Memory memory;                                    // sweeps appended since the last flush
+    }
+
+    private static final class Record {
+        final long timestamp;
+        final String targetId;
+        final double distance, bearing, snr;
+        final ThreatLevel threat;
+
+        Record(long timestamp, String targetId, double distance, double bearing, double snr, ThreatLevel threat) {
+            this.timestamp = timestamp; this.targetId = targetId;
+            this.distance = distance; this.bearing = bearing; this.snr = snr; this.threat = threat;
+        }
+    }
+
+    private static final class Hit {
+        final long timestamp;
+        final int source, ordinal;
+        final Detection detection;
+
+        Hit(long timestamp, int source, int ordinal, Detection detection) {
+            this.timestamp = timestamp; this.source = source; this.ordinal = ordinal; this.detection = detection;
+        }
+    }
+
+    // Unsealed part of a partition: columns plus a bucket -> ordinals index.
+    private static final class Memory {
+        long[] timestamp = new long[64];
+        String[] targetId = new String[64];
+        double[] distance = new double[64], bearing = new double[64], snr = new double[64];
+        ThreatLevel[] threat = new ThreatLevel[64];
+        int size;
+        final Map<Integer, int[]> buckets = new HashMap<>(); // [0] holds the count
+
+        void add(long ts, String id, double d, double b, double s, ThreatLevel t) {
+            if (size == timestamp.length) {
+                int c = size * 2;
+                timestamp = Arrays.copyOf(timestamp, c); targetId = Arrays.copyOf(targetId, c);
+                distance = Arrays.copyOf(distance, c); bearing = Arrays.copyOf(bearing, c);
+                snr = Arrays.copyOf(snr, c); threat = Arrays.copyOf(threat, c);
+            }
+            int i = size++;
+            timestamp[i] = ts; targetId[i] = id; distance[i] = d; bearing[i] = b; snr[i] = s; threat[i] = t;
+            int key = bucketOf(d, b, t);
+            int[] rows = buckets.get(key);
+            if (rows == null || rows[0] + 1 == rows.length) {
+                rows = rows == null ? new int[8] : Arrays.copyOf(rows, rows.length * 2);
+                buckets.put(key, rows);
+            }
+            rows[++rows[0]] = i;
+        }
+
+        void collect(SweepQuery q, int source, List<Hit> hits) {
+            for (Map.Entry<Integer, int[]> e : buckets.entrySet()) {
+                if (!q.mayContain(e.getKey())) continue;
+                int[] rows = e.getValue();
+                for (int k = 1; k <= rows[0]; k++) {
+                    int i = rows[k];
+                    if (q.matches(timestamp[i], distance[i], bearing[i], threat[i])) {
+                        hits.add(new Hit(timestamp[i], source, i, new Detection(targetId[i], distance[i], bearing[i], snr[i], threat[i])));
+                    }
+                }
+            }
+        }
+
+        List<Record> records() {
+            List<Record> records = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) records.add(new Record(timestamp[i], targetId[i], distance[i], bearing[i], snr[i], threat[i]));
+            return records;
+        }
+    }
+
+    // Sealed, memory-mapped part of a partition. Records are grouped by bucket; the bucket
+    // boundaries are rebuilt with one pass when the file is opened.
+    private static final class Segment {
+        final Path path;
+        final long firstSeq, lastSeq;
+        final MappedRecordFile file;
+        final int[] bucketKeys, bucketStart; // bucket i holds records [bucketStart[i], bucketStart[i + 1])
+
+        Segment(Path path, long firstSeq, long lastSeq) throws IOException {
+            this.path = path; this.firstSeq = firstSeq; this.lastSeq = lastSeq;
+            this.file = new MappedRecordFile(path, MappedRecordFile.SWEEP_MAGIC, MappedRecordFile.SWEEP_RECORD_BYTES, ID, THREAT);
+            int n = file.recordCount(), count = 0;
+            int[] keys = new int[16], starts = new int[17];
+            try {
+                for (int r = 0; r < n; r++) {
+                    int ordinal = file.chunkOf(r).getInt(file.offsetOf(r) + ORDINAL);
+                    if (ordinal < 0 || ordinal >= n) throw new IOException("Corrupt record " + r + ": " + path);
+                    int key = bucketOf(field(r, DISTANCE), field(r, BEARING), threat(r));
+                    if (count > 0 && keys[count - 1] == key) continue;
+                    if (count > 0 && keys[count - 1] > key) throw new IOException("Segment not grouped by bucket: " + path);
+                    if (count == keys.length) { keys = Arrays.copyOf(keys, count * 2); starts = Arrays.copyOf(starts, count * 2 + 1); }
+                    keys[count] = key;
+                    starts[count++] = r;
+                }
+            } catch (IOException | RuntimeException e) {
+                file.close();
+                throw e;
+            }
+            starts[count] = n;
+            this.bucketKeys = Arrays.copyOf(keys, count);
+            this.bucketStart = Arrays.copyOf(starts, count + 1);
+        }
+
+        void collect(SweepQuery q, int source, List<Hit> hits) {
+            String[] ids = file.ids();
+            for (int b = 0; b < bucketKeys.length; b++) {
+                if (!q.mayContain(bucketKeys[b])) continue;
+                for (int r = bucketStart[b]; r < bucketStart[b + 1]; r++) {
+                    ByteBuffer chunk = file.chunkOf(r);
+                    int at = file.offsetOf(r);
+                    long ts = chunk.getLong(at + TIMESTAMP);
+                    double d = chunk.getDouble(at + DISTANCE), br = chunk.getDouble(at + BEARING);
+                    ThreatLevel t = THREATS[chunk.get(at + THREAT)];
+                    if (!q.matches(ts, d, br, t)) continue;
+                    hits.add(new Hit(ts, source, chunk.getInt(at + ORDINAL),
+                            new Detection(ids[chunk.getInt(at + ID)], d, br, chunk.getDouble(at + SNR), t)));
+                }
+            }
+        }
+
+        // appends this segment's records in their original append order
+        void readAll(List<Record> out) {
+            Record[] ordered = new Record[file.recordCount()];
+            String[] ids = file.ids();
+            for (int r = 0; r < ordered.length; r++) {
+                ByteBuffer chunk = file.chunkOf(r);
+                int at = file.offsetOf(r);
+                ordered[chunk.getInt(at + ORDINAL)] = new Record(chunk.getLong(at + TIMESTAMP), ids[chunk.getInt(at + ID)],
+                        chunk.getDouble(at + DISTANCE), chunk.getDouble(at + BEARING), chunk.getDouble(at + SNR), THREATS[chunk.get(at + THREAT)]);
+            }
+            out.addAll(Arrays.asList(ordered));
+        }
+
+        void delete() throws IOException {
+            file.close();
+            Files.deleteIfExists(path);
+        }
+
+        private double field(int r, int offset){ return file.chunkOf(r).getDouble(file.offsetOf(r) + offset); }
+        private ThreatLevel threat(int r){ return THREATS[file.chunkOf(r).get(file.offsetOf(r) + THREAT)]; }
+    }
+}
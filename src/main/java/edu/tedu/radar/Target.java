@@ -4,13 +4,17 @@ public class Target {
     private final String id;
     private final double x, y;
     private final double rcs;
+    private final int idHandle; // TargetIdDictionary handle of id, -1 when there is none
 
-    public Target(String id, double x, double y, double rcs) {
+    public Target(String id, double x, double y, double rcs) { this(id, -1, x, y, rcs); }
+
+    public Target(String id, int idHandle, double x, double y, double rcs) {
         if (rcs < 0) throw new IllegalArgumentException("rcs < 0");
-        this.id = id; this.x = x; this.y = y; this.rcs = rcs;
+        this.id = id; this.idHandle = idHandle; this.x = x; this.y = y; this.rcs = rcs;
     }
 
     public String getId(){ return id; }
+    public int getIdHandle(){ return idHandle; }
     public double getX(){ return x; }
     public double getY(){ return y; }
     public double getRcs(){ return rcs; }
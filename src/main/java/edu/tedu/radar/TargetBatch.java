@@ -0,0 +1,151 @@
+package edu.tedu.radar;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Columnar (struct-of-arrays) target picture: one primitive column per Target field,
+// with ids interned into a table so repeated ids share one String. A batch built over a
+// TargetIdDictionary uses the dictionary handles as id references instead: no per-batch
+// id table or hash map, and the id sort order comes for free.
+public class TargetBatch {
+    private static final int DEFAULT_CAPACITY = 16;
+
+    private double[] x, y, rcs;
+    private int[] idRef;
+    private int size;
+    private int modCount; // bumped on every structural change, lets indexes detect staleness
+
+    private final TargetIdDictionary dictionary; // null: ids interned per batch
+    private String[] idTable = new String[DEFAULT_CAPACITY];
+    private int[] idHandles = new int[DEFAULT_CAPACITY]; // idRef -> Target.getIdHandle() of the first occurrence
+    private final Map<String, Integer> idIndex; // null with a dictionary or in per-row mode
+    private int idCount;
+    private int[] idRank; // idRef -> position of the id in lexicographic order, rebuilt lazily
+    private boolean sortedBefore;
+
+    public TargetBatch() { this(DEFAULT_CAPACITY); }
+
+    public TargetBatch(int capacity) { this(null, capacity); }
+
+    // Batch whose ids must all come from ids; add() rejects unknown ids.
+    public TargetBatch(TargetIdDictionary ids, int capacity) { this(ids, capacity, true); }
+
+    private TargetBatch(TargetIdDictionary ids, int capacity, boolean intern) {
+        if (capacity < 0) throw new IllegalArgumentException("capacity < 0");
+        int c = Math.max(capacity, 1);
+        x = new double[c]; y = new double[c]; rcs = new double[c]; idRef = new int[c];
+        this.dictionary = ids;
+        this.idIndex = ids == null && intern ? new HashMap<>() : null;
+        if (ids != null) { idTable = ids.table(); idHandles = ids.ranks(); idCount = ids.size(); idRank = ids.ranks(); }
+    }
+
+    public static TargetBatch of(List<Target> targets) {
+        TargetBatch batch = new TargetBatch(targets.size());
+        for (Target t : targets) batch.add(t.getId(), t.getIdHandle(), t.getX(), t.getY(), t.getRcs());
+        return batch;
+    }
+
+    // One id reference per row, no interning: for a batch that is scanned once (Radar.scan(List)),
+    // where hashing every id would cost more than the scan. Equal ids still sort together.
+    static TargetBatch perRow(List<Target> targets) {
+        TargetBatch batch = new TargetBatch(null, targets.size(), false);
+        batch.idTable = new String[Math.max(targets.size(), 1)];
+        batch.idHandles = new int[batch.idTable.length];
+        for (Target t : targets) batch.add(t.getId(), t.getIdHandle(), t.getX(), t.getY(), t.getRcs());
+        return batch;
+    }
+
+    public static TargetBatch of(TargetIdDictionary ids, List<Target> targets) {
+        TargetBatch batch = new TargetBatch(ids, targets.size());
+        for (Target t : targets) batch.add(t.getId(), t.getIdHandle(), t.getX(), t.getY(), t.getRcs());
+        return batch;
+    }
+
+    // Same validation as the Target constructor. Returns the row index.
+    public int add(String id, double x, double y, double rcs) { return add(id, -1, x, y, rcs); }
+
+    // Row for a dictionary handle; only valid on a batch built over a TargetIdDictionary.
+    public int add(int idHandle, double x, double y, double rcs) {
+        if (dictionary == null) throw new IllegalStateException("Batch has no TargetIdDictionary");
+        return add(dictionary.idOf(idHandle), idHandle, x, y, rcs);
+    }
+
+    int add(String id, int idHandle, double x, double y, double rcs) {
+        if (rcs < 0) throw new IllegalArgumentException("rcs < 0");
+        int ref = dictionary == null ? intern(id, idHandle) : dictionary.resolve(id, idHandle);
+        if (size == this.x.length) grow();
+        int row = size++;
+        modCount++;
+        this.x[row] = x; this.y[row] = y; this.rcs[row] = rcs;
+        this.idRef[row] = ref;
+        return row;
+    }
+
+    // Drops the rows but keeps the id table and the column buffers for the next sweep.
+    public void clear() { size = 0; modCount++; }
+
+    public int size(){ return size; }
+    public double getX(int row){ return x[checkRow(row)]; }
+    public double getY(int row){ return y[checkRow(row)]; }
+    public double getRcs(int row){ return rcs[checkRow(row)]; }
+    public String getId(int row){ return idTable[idRef[checkRow(row)]]; }
+    public int getIdRef(int row){ return idRef[checkRow(row)]; }
+    public int getIdHandle(int row){ return idHandles[idRef[checkRow(row)]]; }
+    public int idCount(){ return idCount; }
+
+    // raw column access for the scan kernels (valid up to size())
+    double[] xs(){ return x; }
+    double[] ys(){ return y; }
+    double[] rcsColumn(){ return rcs; }
+    int[] idRefs(){ return idRef; }
+    String[] idTable(){ return idTable; }
+    int[] idHandles(){ return idHandles; }
+    int modCount(){ return modCount; }
+
+    int[] idRanks() {
+        if (idRank == null || idRank.length != idCount) idRank = TargetIdDictionary.ranksOf(idTable, idCount);
+        return idRank;
+    }
+
+    // Sorts a scan of this batch by target id. The rank table costs a sort of every id and
+    // only pays off when it is reused: a dictionary batch has it for free, a plain batch
+    // builds it on its second sort. The first sort, the only one a throwaway batch such as
+    // Radar.scan(List)'s ever does, compares just the ids that passed the gate.
+    void sortByTargetId(DetectionBatch out) {
+        if ((idRank == null || idRank.length != idCount) && !sortedBefore) {
+            sortedBefore = true;
+            out.sortByTargetId();
+            return;
+        }
+        out.sortByTargetId(idRanks());
+    }
+
+    // true once the id rank table is built and current
+    boolean hasIdRanks(){ return idRank != null && idRank.length == idCount; }
+
+    private int intern(String id, int idHandle) {
+        Integer ref = idIndex == null ? null : idIndex.get(id);
+        if (ref != null) return ref;
+        if (idCount == idTable.length) {
+            idTable = Arrays.copyOf(idTable, idCount * 2);
+            idHandles = Arrays.copyOf(idHandles, idCount * 2);
+        }
+        idTable[idCount] = id;
+        idHandles[idCount] = idHandle;
+        if (idIndex != null) idIndex.put(id, idCount);
+        return idCount++;
+    }
+
+    private void grow() {
+        int c = x.length * 2;
+        x = Arrays.copyOf(x, c); y = Arrays.copyOf(y, c); rcs = Arrays.copyOf(rcs, c);
+        idRef = Arrays.copyOf(idRef, c);
+    }
+
+    private int checkRow(int row) {
+        if (row < 0 || row >= size) throw new IndexOutOfBoundsException("row " + row + " of " + size);
+        return row;
+    }
+}
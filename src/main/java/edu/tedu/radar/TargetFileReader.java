@@ -0,0 +1,56 @@
+package edu.tedu.radar;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+
+// Memory-mapped view of a target file. scan() gates records straight from the mapped
+// buffers, so a recorded sweep replays without building a single Target.
+public class TargetFileReader implements Closeable {
+    private final MappedRecordFile file;
+
+    public TargetFileReader(Path path) throws IOException {
+        this.file = new MappedRecordFile(path, MappedRecordFile.TARGET_MAGIC, MappedRecordFile.TARGET_RECORD_BYTES, 0, -1);
+    }
+
+    public int size(){ return file.recordCount(); }
+
+    public String getId(int record) {
+        file.checkRecord(record);
+        return file.ids()[file.chunkOf(record).getInt(file.offsetOf(record))];
+    }
+    public double getX(int record){ return field(record, 4); }
+    public double getY(int record){ return field(record, 12); }
+    public double getRcs(int record){ return field(record, 20); }
+
+    public Target toTarget(int record){ return new Target(getId(record), getX(record), getY(record), getRcs(record)); }
+
+    // Same output as radar.scan over the recorded targets; DetectionBatch rows are record indexes.
+    // Only the ids of the detections are sorted, not the whole dictionary.
+    public DetectionBatch scan(Radar radar, DetectionBatch out) {
+        ScanMetrics.Tally tally = radar.newTally();
+        out.reset(file.ids());
+        int record = 0;
+        for (int c = 0; c < file.chunkCount(); c++) {
+            ByteBuffer chunk = file.chunk(c);
+            for (int off = 0, end = chunk.limit(); off < end; off += MappedRecordFile.TARGET_RECORD_BYTES, record++) {
+                int outcome = radar.detect(record, chunk.getInt(off), chunk.getDouble(off + 4), chunk.getDouble(off + 12),
+                        chunk.getDouble(off + 20), out);
+                if (tally != null) Radar.count(tally, outcome, out);
+            }
+        }
+        long sortStart = System.nanoTime();
+        out.sortByTargetId();
+        if (tally != null) radar.record(tally, sortStart, 0);
+        return out;
+    }
+
+    private double field(int record, int offset) {
+        file.checkRecord(record);
+        return file.chunkOf(record).getDouble(file.offsetOf(record) + offset);
+    }
+
+    @Override
+    public void close() throws IOException { file.close(); }
+}
@@ -0,0 +1,26 @@
+package edu.tedu.radar;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.List;
+
+// Streams targets into the fixed-record target file format read by TargetFileReader.
+public class TargetFileWriter extends RecordFileWriter {
+
+    public TargetFileWriter(Path file) throws IOException {
+        super(file, MappedRecordFile.TARGET_MAGIC, MappedRecordFile.TARGET_RECORD_BYTES);
+    }
+
+    public void write(String id, double x, double y, double rcs) throws IOException {
+        if (rcs < 0) throw new IllegalArgumentException("rcs < 0");
+        ByteBuffer b = beginRecord();
+        b.putInt(intern(id)).putDouble(x).putDouble(y).putDouble(rcs);
+    }
+
+    public void write(Target t) throws IOException { write(t.getId(), t.getX(), t.getY(), t.getRcs()); }
+
+    public void writeAll(List<Target> targets) throws IOException {
+        for (Target t : targets) write(t);
+    }
+}
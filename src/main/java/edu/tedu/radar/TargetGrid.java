@@ -0,0 +1,118 @@
+package edu.tedu.radar;
+
+import java.util.Arrays;
+
+// Uniform grid over the positions of a TargetBatch, stored as compressed rows
+// (cellStart offsets into one rows array). Built once per target picture; read-only
+// afterwards, so one grid can serve any number of radars and threads.
+public class TargetGrid {
+    private static final int MAX_CELLS = 1 << 22;
+
+    private final TargetBatch batch;
+    private final int builtModCount;
+    private final double minX, minY, cellSizeKm;
+    private final int cols, rowsOfCells;
+    private final int[] cellStart; // cell c holds rows[cellStart[c] .. cellStart[c + 1])
+    private final int[] rows;
+
+    public TargetGrid(TargetBatch batch, double cellSizeKm) {
+        if (!(cellSizeKm > 0) || Double.isInfinite(cellSizeKm)) throw new IllegalArgumentException("Invalid cell size");
+        this.batch = batch;
+        this.builtModCount = batch.modCount();
+        double[] xs = batch.xs(), ys = batch.ys();
+        int n = batch.size();
+
+        // Non-finite positions can never pass a finite range gate, so they stay out of the grid.
+        double lx = Double.POSITIVE_INFINITY, ly = Double.POSITIVE_INFINITY;
+        double hx = Double.NEGATIVE_INFINITY, hy = Double.NEGATIVE_INFINITY;
+        int indexed = 0;
+        for (int r = 0; r < n; r++) {
+            if (!Double.isFinite(xs[r]) || !Double.isFinite(ys[r])) continue;
+            lx = Math.min(lx, xs[r]); hx = Math.max(hx, xs[r]);
+            ly = Math.min(ly, ys[r]); hy = Math.max(hy, ys[r]);
+            indexed++;
+        }
+        if (indexed == 0) { lx = ly = hx = hy = 0; }
+
+        double cell = cellSizeKm;
+        while ((double) cellsFor(hx - lx, cell) * cellsFor(hy - ly, cell) > MAX_CELLS) cell *= 2;
+        this.cellSizeKm = cell;
+        this.minX = lx; this.minY = ly;
+        this.cols = (int) cellsFor(hx - lx, cell);
+        this.rowsOfCells = (int) cellsFor(hy - ly, cell);
+
+        // counting sort of rows by cell; keeps rows ascending inside every cell
+        int cells = cols * rowsOfCells;
+        cellStart = new int[cells + 1];
+        int[] cellOf = new int[n];
+        for (int r = 0; r < n; r++) {
+            if (!Double.isFinite(xs[r]) || !Double.isFinite(ys[r])) { cellOf[r] = -1; continue; }
+            int c = cellIndex(column(xs[r]), row(ys[r]));
+            cellOf[r] = c;
+            cellStart[c + 1]++;
+        }
+        for (int c = 0; c < cells; c++) cellStart[c + 1] += cellStart[c];
+        rows = new int[indexed];
+        int[] fill = Arrays.copyOf(cellStart, cells);
+        for (int r = 0; r < n; r++) if (cellOf[r] >= 0) rows[fill[cellOf[r]]++] = r;
+    }
+
+    // Picks a cell size that gives roughly one target per cell over the occupied area.
+    public static TargetGrid of(TargetBatch batch) {
+        double[] xs = batch.xs(), ys = batch.ys();
+        double w = 0, h = 0, lx = 0, ly = 0;
+        boolean first = true;
+        for (int r = 0; r < batch.size(); r++) {
+            if (!Double.isFinite(xs[r]) || !Double.isFinite(ys[r])) continue;
+            if (first) { lx = xs[r]; ly = ys[r]; first = false; }
+            w = Math.max(w, Math.abs(xs[r] - lx)); h = Math.max(h, Math.abs(ys[r] - ly));
+        }
+        double area = Math.max(w, 1.0) * Math.max(h, 1.0) * 4;
+        return new TargetGrid(batch, Math.sqrt(area / Math.max(batch.size(), 1)));
+    }
+
+    public TargetBatch getBatch(){ return batch; }
+    public double getCellSizeKm(){ return cellSizeKm; }
+    public int cellCount(){ return cols * rowsOfCells; }
+
+    // Rows of every indexed target in a cell that overlaps the circle, in ascending row order.
+    // Candidates still need the exact range test; cells are pruned conservatively.
+    int collectWithin(double cx, double cy, double radius, DetectionBatch scratch) {
+        checkFresh();
+        int c0 = clamp(column(cx - radius), cols), c1 = clamp(column(cx + radius), cols);
+        int r0 = clamp(row(cy - radius), rowsOfCells), r1 = clamp(row(cy + radius), rowsOfCells);
+        // slack keeps rounding in cell bounds and in Math.hypot from pruning a boundary target
+        double slack = cellSizeKm * 1e-9 + Math.ulp(radius) * 4;
+        double reach = radius + slack;
+        int count = 0;
+        int[] out = scratch.candidateBuffer(16);
+        for (int r = r0; r <= r1; r++) {
+            double cellLoY = minY + r * cellSizeKm - slack, cellHiY = minY + (r + 1) * cellSizeKm + slack;
+            double dy = cy < cellLoY ? cellLoY - cy : cy > cellHiY ? cy - cellHiY : 0;
+            for (int c = c0; c <= c1; c++) {
+                double cellLoX = minX + c * cellSizeKm - slack, cellHiX = minX + (c + 1) * cellSizeKm + slack;
+                double dx = cx < cellLoX ? cellLoX - cx : cx > cellHiX ? cx - cellHiX : 0;
+                if (dx * dx + dy * dy > reach * reach) continue;
+                int cell = cellIndex(c, r);
+                int from = cellStart[cell], to = cellStart[cell + 1];
+                if (to == from) continue;
+                if (out.length < count + (to - from)) out = scratch.candidateBuffer(count + (to - from));
+                System.arraycopy(rows, from, out, count, to - from);
+                count += to - from;
+            }
+        }
+        // cells are visited row-major, so restore source order for the stable id sort
+        Arrays.sort(out, 0, count);
+        return count;
+    }
+
+    private void checkFresh() {
+        if (batch.modCount() != builtModCount) throw new IllegalStateException("TargetBatch changed after the grid was built");
+    }
+
+    private int column(double x) { return (int) Math.max(Math.min(Math.floor((x - minX) / cellSizeKm), Integer.MAX_VALUE), Integer.MIN_VALUE); }
+    private int row(double y) { return (int) Math.max(Math.min(Math.floor((y - minY) / cellSizeKm), Integer.MAX_VALUE), Integer.MIN_VALUE); }
+    private int cellIndex(int c, int r) { return clamp(r, rowsOfCells) * cols + clamp(c, cols); }
+    private static int clamp(int v, int n) { return v < 0 ? 0 : v >= n ? n - 1 : v; }
+    private static long cellsFor(double extent, double cell) { return (long) Math.floor(extent / cell) + 1; }
+}
@@ -0,0 +1,108 @@
+package edu.tedu.radar;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+// Immutable mapping of target ids to dense int handles 0..size()-1, numbered in lexicographic
+// (String.compareTo) order, so comparing handles orders targets exactly like comparing ids.
+// Built once per known id population; every Target made through it shares one String per id.
+public class TargetIdDictionary {
+    private final String[] ids;   // sorted, distinct; handle = index
+    private final int[] identity; // handle -> rank, which is the handle itself
+
+    private TargetIdDictionary(String[] sortedDistinct) {
+        this.ids = sortedDistinct;
+        this.identity = new int[sortedDistinct.length];
+        for (int i = 0; i < identity.length; i++) identity[i] = i;
+    }
+
+    // Duplicates collapse to one handle; null ids are rejected because they have no order.
+    public static TargetIdDictionary of(Collection<String> ids) {
+        String[] sorted = ids.toArray(new String[0]);
+        for (String id : sorted) if (id == null) throw new IllegalArgumentException("Target id required");
+        Arrays.sort(sorted);
+        int n = 0;
+        for (int i = 0; i < sorted.length; i++) if (n == 0 || !sorted[i].equals(sorted[n - 1])) sorted[n++] = sorted[i];
+        return new TargetIdDictionary(Arrays.copyOf(sorted, n));
+    }
+
+    public int size(){ return ids.length; }
+
+    public String idOf(int handle) {
+        if (handle < 0 || handle >= ids.length) throw new IndexOutOfBoundsException("handle " + handle + " of " + ids.length);
+        return ids[handle];
+    }
+
+    // -1 when the id is not in the dictionary.
+    public int handleOf(String id) {
+        if (id == null) return -1;
+        int h = Arrays.binarySearch(ids, id);
+        return h < 0 ? -1 : h;
+    }
+
+    // A target carrying both the shared id string and its handle.
+    public Target target(int handle, double x, double y, double rcs) {
+        return new Target(idOf(handle), handle, x, y, rcs);
+    }
+
+    // Resolves id (preferring a matching hint handle) or throws for ids outside the dictionary.
+    int resolve(String id, int hint) {
+        if (hint >= 0 && hint < ids.length && ids[hint].equals(id)) return hint;
+        int h = handleOf(id);
+        if (h < 0) throw new IllegalArgumentException("Unknown target id: " + id);
+        return h;
+    }
+
+    String[] table(){ return ids; }
+    int[] ranks(){ return identity; }
+
+    // Scan order of two ids: String.compareTo, with a null id (allowed in Target and in the
+    // record files) ahead of every other id.
+    static int compareIds(String a, String b) {
+        if (a == null || b == null) return a == b ? 0 : a == null ? -1 : 1;
+        return a.compareTo(b);
+    }
+
+    // rank[ref] = position of table[ref] in compareIds order
+    static int[] ranksOf(String[] table, int count) {
+        int[] order = new int[count];
+        for (int i = 0; i < count; i++) order[i] = i;
+        order = sortByIds(order, new int[count], count, table, null);
+        int[] ranks = new int[count];
+        for (int r = 0; r < count; r++) ranks[order[r]] = r;
+        return ranks;
+    }
+
+    // Stable sort of the indexes a[0..n) by the id table[ref[i]] (table[i] when ref is null),
+    // on primitive arrays: insertion-sorted runs of 16, then bottom-up merges between a and tmp.
+    // Returns whichever of the two holds the result.
+    static int[] sortByIds(int[] a, int[] tmp, int n, String[] table, int[] ref) {
+        final int run = 16;
+        for (int lo = 0; lo < n; lo += run) {
+            int hi = Math.min(lo + run, n);
+            for (int i = lo + 1; i < hi; i++) {
+                int v = a[i];
+                String id = table[ref == null ? v : ref[v]];
+                int j = i - 1;
+                while (j >= lo && compareIds(table[ref == null ? a[j] : ref[a[j]]], id) > 0) { a[j + 1] = a[j]; j--; }
+                a[j + 1] = v;
+            }
+        }
+        int[] src = a, dst = tmp;
+        for (int width = run; width < n; width *= 2) {
+            for (int lo = 0; lo < n; lo += 2 * width) {
+                int mid = Math.min(lo + width, n), hi = Math.min(lo + 2 * width, n);
+                int i = lo, j = mid, k = lo;
+                while (i < mid && j < hi) {
+                    // take from the right run only when strictly smaller, which keeps ties stable
+                    if (compareIds(table[ref == null ? src[j] : ref[src[j]]], table[ref == null ? src[i] : ref[src[i]]]) < 0) dst[k++] = src[j++];
+                    else dst[k++] = src[i++];
+                }
+                while (i < mid) dst[k++] = src[i++];
+                while (j < hi) dst[k++] = src[j++];
+            }
+            int[] t = src; src = dst; dst = t;
+        }
+        return src;
+    }
+}
@@ -0,0 +1,50 @@
+package edu.tedu.radar;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Target picture keyed by Target.getId(), kept up to date from deltas, with a running
+// fingerprint for ScanCache. The fingerprint is the sum of one hash per target, so put and
+// remove adjust it in O(1) and it does not depend on insertion order; with unique ids the
+// scan output does not either (ties in the id sort need equal ids). Not thread-safe.
+public class TargetSet {
+    private final Map<String, Target> targets = new LinkedHashMap<>();
+    private long fingerprint;
+    private List<Target> snapshot; // asList() until the next change
+
+    // Adds target or replaces the one with the same id; returns the replaced target or null.
+    public Target put(Target target) {
+        if (target == null || target.getId() == null) throw new IllegalArgumentException("Target id required");
+        Target old = targets.put(target.getId(), target);
+        if (old != null) fingerprint -= hash(old);
+        fingerprint += hash(target);
+        snapshot = null;
+        return old;
+    }
+
+    public Target remove(String targetId) {
+        if (targetId == null) throw new IllegalArgumentException("Target id required");
+        Target old = targets.remove(targetId);
+        if (old != null) { fingerprint -= hash(old); snapshot = null; }
+        return old;
+    }
+
+    public Target get(String targetId){ return targets.get(targetId); }
+    public int size(){ return targets.size(); }
+    public long fingerprint(){ return fingerprint; }
+
+    // Immutable view of the current targets in insertion order.
+    public List<Target> asList() {
+        if (snapshot == null) snapshot = List.copyOf(targets.values());
+        return snapshot;
+    }
+
+    // Hash over every field scan reads.
+    static long hash(Target t) {
+        long h = ScanCache.mix(0x9E3779B97F4A7C15L ^ t.getId().hashCode() ^ ((long) t.getIdHandle() << 32));
+        h = ScanCache.mix(h ^ Double.doubleToLongBits(t.getX()));
+        h = ScanCache.mix(h ^ Double.doubleToLongBits(t.getY()));
+        return ScanCache.mix(h ^ Double.doubleToLongBits(t.getRcs()));
+    }
+}
@@ -0,0 +1,29 @@
+package edu.tedu.radar;
+
+// Smoothed state of one target across sweeps, in the radar's km frame (x east, y north of
+// the station). Updated by Tracker with an alpha-beta filter.
+public class Track {
+    private final String id;
+    private final boolean identified;
+    double x, y, vx, vy; // position in km, velocity in km/s
+    int hits, misses;
+    long lastSweep;
+    ThreatLevel threat;
+
+    Track(String id, boolean identified, double x, double y, ThreatLevel threat, long sweep) {
+        this.id = id; this.identified = identified; this.x = x; this.y = y;
+        this.threat = threat; this.lastSweep = sweep; this.hits = 1;
+    }
+
+    public String getId(){ return id; }
+    public boolean isIdentified(){ return identified; } // keyed by a target id rather than by gating
+    public double getX(){ return x; }
+    public double getY(){ return y; }
+    public double getVx(){ return vx; }
+    public double getVy(){ return vy; }
+    public double getDistanceKm(){ return Math.hypot(x, y); }
+    public double getBearingDeg(){ return (Math.toDegrees(Math.atan2(y, x)) + 360) % 360; }
+    public int getHits(){ return hits; }
+    public int getMisses(){ return misses; } // consecutive sweeps without an associated detection
+    public ThreatLevel getThreat(){ return threat; }
+}
@@ -0,0 +1,131 @@
+package edu.tedu.radar;
+
+import java.util.AbstractCollection;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+// Multi-target tracker over successive Radar.scan results. Detections that carry a target id
+// update the track with that id directly. Detections without one (null targetId) are gated
+// against the predicted positions of the tracks not yet updated this sweep, looked up through
+// a spatial hash with gate-sized cells, so a sweep costs O(tracks + detections) instead of
+// the O(n^2) all-pairs match. Each track is smoothed with an alpha-beta filter and dropped
+// after more than maxMisses sweeps without a detection. Tracks started by gating live in their
+// own map keyed by sequence number, so their "TRK-n" names never collide with target ids.
+// Not thread-safe.
+public class Tracker {
+    private final double alpha, beta, gateKm;
+    private final int maxMisses;
+    private final Map<String, Track> tracks = new HashMap<>();          // identified, by target id
+    private final Map<Long, Track> anonymous = new LinkedHashMap<>();   // started by gating
+    private final Collection<Track> allTracks = new AbstractCollection<>() {
+        @Override public Iterator<Track> iterator() { return Stream.concat(tracks.values().stream(), anonymous.values().stream()).iterator(); }
+        @Override public int size() { return tracks.size() + anonymous.size(); }
+    };
+    private final Map<Long, List<Track>> grid = new HashMap<>();
+    private long sweep;
+    private long nextAnonymousId;
+
+    public Tracker() { this(0.5, 0.3, 2.0, 3); }
+
+    public Tracker(double alpha, double beta, double gateKm, int maxMisses) {
+        if (!(alpha > 0 && alpha <= 1) || !(beta >= 0 && beta <= 2) || !(gateKm > 0) || maxMisses < 0)
+            throw new IllegalArgumentException("Invalid parameters");
+        this.alpha = alpha; this.beta = beta; this.gateKm = gateKm; this.maxMisses = maxMisses;
+    }
+
+    // Feeds one sweep taken dtSeconds after the previous one.
+    public void update(List<Detection> detections, double dtSeconds) {
+        if (!(dtSeconds > 0)) throw new IllegalArgumentException("dtSeconds must be positive");
+        sweep++;
+        for (Track t : allTracks) predict(t, dtSeconds);
+
+        List<Detection> unidentified = new ArrayList<>();
+        for (Detection d : detections) {
+            if (d.getTargetId() == null) { unidentified.add(d); continue; }
+            Track t = tracks.get(d.getTargetId());
+            if (t == null) tracks.put(d.getTargetId(), newTrack(d.getTargetId(), true, d));
+            else correct(t, d, dtSeconds);
+        }
+        if (!unidentified.isEmpty()) associate(unidentified, dtSeconds);
+
+        dropMissed(tracks.values());
+        dropMissed(anonymous.values());
+    }
+
+    public Collection<Track> getTracks(){ return allTracks; } // read-only view
+    public Track getTrack(String targetId){ return tracks.get(targetId); } // identified tracks only
+    public int getTrackCount(){ return allTracks.size(); }
+    public long getSweepCount(){ return sweep; }
+
+    // Greedy nearest-neighbour: each unidentified detection takes the closest free predicted
+    // track inside the gate, or starts a new one.
+    private void associate(List<Detection> unidentified, double dt) {
+        grid.clear();
+        for (Track t : allTracks) {
+            if (t.lastSweep == sweep) continue;
+            grid.computeIfAbsent(cellKey(cell(t.x), cell(t.y)), k -> new ArrayList<>(2)).add(t);
+        }
+        for (Detection d : unidentified) {
+            double dx = x(d), dy = y(d);
+            long cx = cell(dx), cy = cell(dy);
+            Track best = null;
+            double bestDist = gateKm;
+            for (long i = cx - 1; i <= cx + 1; i++) {
+                for (long j = cy - 1; j <= cy + 1; j++) {
+                    List<Track> candidates = grid.get(cellKey(i, j));
+                    if (candidates == null) continue;
+                    for (Track t : candidates) {
+                        if (t.lastSweep == sweep) continue;
+                        double dist = Math.hypot(t.x - dx, t.y - dy);
+                        if (dist <= bestDist) { best = t; bestDist = dist; }
+                    }
+                }
+            }
+            if (best != null) {
+                correct(best, d, dt);
+            } else {
+                long n = ++nextAnonymousId;
+                anonymous.put(n, newTrack("TRK-" + n, false, d));
+            }
+        }
+    }
+
+    private void dropMissed(Collection<Track> candidates) {
+        for (Iterator<Track> it = candidates.iterator(); it.hasNext(); ) {
+            Track t = it.next();
+            if (t.lastSweep != sweep && ++t.misses > maxMisses) it.remove();
+        }
+    }
+
+    private Track newTrack(String id, boolean identified, Detection d) {
+        return new Track(id, identified, x(d), y(d), d.getThreat(), sweep);
+    }
+
+    private static void predict(Track t, double dt) {
+        t.x += t.vx * dt;
+        t.y += t.vy * dt;
+    }
+
+    private void correct(Track t, Detection d, double dt) {
+        double rx = x(d) - t.x, ry = y(d) - t.y;
+        t.x += alpha * rx;
+        t.y += alpha * ry;
+        t.vx += beta * rx / dt;
+        t.vy += beta * ry / dt;
+        t.hits++;
+        t.misses = 0;
+        t.lastSweep = sweep;
+        t.threat = d.getThreat();
+    }
+
+    private static double x(Detection d) { return d.getDistanceKm() * Math.cos(Math.toRadians(d.getBearingDeg())); }
+    private static double y(Detection d) { return d.getDistanceKm() * Math.sin(Math.toRadians(d.getBearingDeg())); }
+    private long cell(double v) { return (long) Math.floor(v / gateKm); }
+    private static long cellKey(long cx, long cy) { return (cx << 32) ^ (cy & 0xffffffffL); }
+}
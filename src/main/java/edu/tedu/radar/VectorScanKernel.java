@@ -0,0 +1,54 @@
+package edu.tedu.radar;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+// SIMD pre-gate over the x/y/rcs columns of a TargetBatch. Each lane gets a squared-distance
+// range test and an SNR test; both are widened by a relative slack so that lane arithmetic
+// (sqrt of x*x + y*y instead of Math.hypot) can never drop a target the scalar gate would keep.
+// Surviving lanes, usually a small share, go through Radar.detect for the exact distance,
+// SNR, threat level and the atan2 bearing, which keeps the output bit-identical to the scalar scan.
+//
+// Only loaded through VectorScanSupport, which checks that jdk.incubator.vector is present.
+final class VectorScanKernel {
+    private static final VectorSpecies<Double> SPECIES = DoubleVector.SPECIES_PREFERRED;
+    private static final double SLACK = 1e-9;
+
+    private VectorScanKernel() {}
+
+    static int lanes() { return SPECIES.length(); }
+
+    // Appends every detection of rows [0, targets.size()) to out, in row order (unsorted).
+    static void gate(Radar radar, TargetBatch targets, DetectionBatch out) {
+        double[] xs = targets.xs(), ys = targets.ys(), rcs = targets.rcsColumn();
+        int[] idRefs = targets.idRefs();
+        int n = targets.size();
+        double rx = radar.getX(), ry = radar.getY();
+        double reach = radar.getMaxRangeKm() * (1 + SLACK);
+        double reach2 = reach * reach;
+        double threshold = radar.getSnrThreshold() * (1 - SLACK);
+
+        int upper = SPECIES.loopBound(n);
+        int row = 0;
+        for (; row < upper; row += SPECIES.length()) {
+            DoubleVector dx = DoubleVector.fromArray(SPECIES, xs, row).sub(rx);
+            DoubleVector dy = DoubleVector.fromArray(SPECIES, ys, row).sub(ry);
+            DoubleVector d2 = dx.mul(dx).add(dy.mul(dy));
+            VectorMask<Double> inRange = d2.compare(VectorOperators.LE, reach2);
+            if (!inRange.anyTrue()) continue;
+            // rcs / (1 + d) >= t  <=>  rcs >= t * (1 + d)
+            DoubleVector need = d2.sqrt().add(1.0).mul(threshold);
+            VectorMask<Double> candidates = inRange.and(
+                    DoubleVector.fromArray(SPECIES, rcs, row).compare(VectorOperators.GE, need));
+            long bits = candidates.toLong();
+            while (bits != 0) {
+                int r = row + Long.numberOfTrailingZeros(bits);
+                radar.detect(r, idRefs[r], xs[r], ys[r], rcs[r], out);
+                bits &= bits - 1;
+            }
+        }
+        for (; row < n; row++) radar.detect(row, idRefs[row], xs[row], ys[row], rcs[row], out);
+    }
+}
@@ -0,0 +1,23 @@
+package edu.tedu.radar;
+
+// Decides once whether the SIMD kernel can be used. The kernel class is only touched after
+// jdk.incubator.vector has been found in the boot layer (the JVM needs
+// --add-modules jdk.incubator.vector), so without it Radar silently stays on the scalar path.
+// -Dedu.tedu.radar.vector=false forces the scalar path.
+final class VectorScanSupport {
+    // below this many targets the scalar loop is as fast
+    static final int MIN_TARGETS = 64;
+    static final boolean AVAILABLE = probe();
+
+    private VectorScanSupport() {}
+
+    private static boolean probe() {
+        if (!Boolean.parseBoolean(System.getProperty("edu.tedu.radar.vector", "true"))) return false;
+        if (ModuleLayer.boot().findModule("jdk.incubator.vector").isEmpty()) return false;
+        try {
+            return VectorScanKernel.lanes() > 1;
+        } catch (LinkageError e) {
+            return false;
+        }
+    }
+}
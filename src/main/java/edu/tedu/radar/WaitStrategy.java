@@ -0,0 +1,20 @@
+package edu.tedu.radar;
+
+import java.util.concurrent.locks.LockSupport;
+
+// How a DetectionRing producer or consumer idles while the ring is full or empty.
+public enum WaitStrategy {
+    BUSY_SPIN, // Thread.onSpinWait(): lowest latency, burns a core
+    YIELD,     // Thread.yield(): gives the core to other runnable threads
+    PARK;      // parks for PARK_NANOS: near-zero CPU, adds up to that much latency
+
+    static final long PARK_NANOS = 50_000;
+
+    void idle() {
+        switch (this) {
+            case BUSY_SPIN -> Thread.onSpinWait();
+            case YIELD -> Thread.yield();
+            case PARK -> LockSupport.parkNanos(PARK_NANOS);
+        }
+    }
+}
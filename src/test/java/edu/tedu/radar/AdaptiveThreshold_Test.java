@@ -0,0 +1,82 @@
+package edu.tedu.radar;
+
+import org.junit.jupiter.api.Test;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AdaptiveThreshold_Test {
+
+    private final Radar radar = new Radar("R", 40.0, 0.4);
+
+    private static Target at(String id, double distance, double bearingDeg, double snr) {
+        double a = Math.toRadians(bearingDeg);
+        return new Target(id, distance * Math.cos(a), distance * Math.sin(a), snr * (1 + distance));
+    }
+
+    // dense returns just above the fixed threshold in the 0-30 degree sector, plus two real targets
+    private static List<Target> clutteredSweep(long seed) {
+        Random rnd = new Random(seed);
+        List<Target> targets = new ArrayList<>();
+        for (int i = 0; i < 300; i++) targets.add(at("C" + i, 5 + rnd.nextDouble() * 30, rnd.nextDouble() * 30, 0.45 + rnd.nextDouble() * 0.2));
+        targets.add(at("STRONG", 20, 15, 6.0));
+        targets.add(at("CLEAR", 20, 180, 0.5));
+        return targets;
+    }
+
+    @Test
+    void withoutHistoryMatchesFixedThresholdScan() {
+        List<Target> targets = ScanFixtures.randomTargets(5, 3_000, 60.0);
+        AdaptiveThreshold cfar = radar.newAdaptiveThreshold(8, 36, 0.3, 1.5);
+        assertIterableEquals(ScanFixtures.describe(radar.scan(targets)), ScanFixtures.describe(radar.scanAdaptive(targets, cfar)));
+        assertEquals(1, cfar.getSweepCount());
+    }
+
+    @Test
+    void clutterIsSuppressedWhileTargetsSurvive() {
+        AdaptiveThreshold cfar = new AdaptiveThreshold(40.0, 8, 36, 0.3, 2.0);
+        List<Detection> first = radar.scanAdaptive(clutteredSweep(0), cfar);
+        assertEquals(302, first.size());
+        List<Detection> later = null;
+        for (int s = 1; s <= 10; s++) later = radar.scanAdaptive(clutteredSweep(s), cfar);
+        List<String> ids = later.stream().map(Detection::getTargetId).toList();
+        assertTrue(later.size() < first.size() / 3, "clutter still flooding: " + later.size());
+        assertTrue(ids.contains("STRONG"));
+        assertTrue(ids.contains("CLEAR"));
+        // a clutter-sector cell has a raised threshold; STRONG is classified against it
+        double level = cfar.getLevel(20, 15);
+        assertTrue(level > radar.getSnrThreshold());
+        Detection strong = later.get(ids.indexOf("STRONG"));
+        assertEquals(Radar.classify(strong.getSnr(), level), strong.getThreat());
+        assertTrue(cfar.getLevel(20, 180) < radar.getSnrThreshold());
+    }
+
+    @Test
+    void estimateConvergesToSteadyMeanAndDecaysWhenEmpty() {
+        AdaptiveThreshold cfar = new AdaptiveThreshold(40.0, 4, 4, 0.5, 1.0);
+        List<Target> one = List.of(at("T", 15, 10, 2.0));
+        for (int s = 0; s < 30; s++) radar.scanAdaptive(one, cfar);
+        assertEquals(2.0, cfar.getNoiseEstimate(15, 10), 1e-6);
+        assertEquals(0.0, cfar.getLevel(15, 10));            // its own cell is not a training cell
+        assertEquals(2.0 / 8, cfar.getLevel(25, 10), 1e-6);  // one of eight training cells of a neighbour
+        for (int s = 0; s < 30; s++) radar.scanAdaptive(List.of(), cfar);
+        assertEquals(0.0, cfar.getNoiseEstimate(15, 10), 1e-6);
+        cfar.reset();
+        assertEquals(0, cfar.getSweepCount());
+    }
+
+    @Test
+    void rejectsInvalidParameters() {
+        assertThrows(IllegalArgumentException.class, () -> new AdaptiveThreshold(Double.POSITIVE_INFINITY, 4, 4, 0.5, 1.0));
+        assertThrows(IllegalArgumentException.class, () -> new AdaptiveThreshold(40, 0, 4, 0.5, 1.0));
+        assertThrows(IllegalArgumentException.class, () -> new AdaptiveThreshold(40, 4, 4, 0, 1.0));
+        assertThrows(IllegalArgumentException.class, () -> new AdaptiveThreshold(40, 4, 4, 0.5, -1));
+        // cells laid out for another radar's range
+        AdaptiveThreshold other = new AdaptiveThreshold(80, 4, 4, 0.5, 1.0);
+        assertThrows(IllegalArgumentException.class, () -> radar.scanAdaptive(List.of(), other));
+        assertThrows(IllegalArgumentException.class, () -> radar.scanAdaptive(List.of(), null));
+        assertEquals(radar.getMaxRangeKm(), radar.newAdaptiveThreshold(4, 4, 0.5, 1.0).getMaxRangeKm());
+        assertThrows(IllegalArgumentException.class, () -> new Radar("R", Double.POSITIVE_INFINITY, 0.4).newAdaptiveThreshold(4, 4, 0.5, 1.0));
+    }
+}
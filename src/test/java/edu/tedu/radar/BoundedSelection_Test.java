@@ -0,0 +1,75 @@
+package edu.tedu.radar;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import java.util.Comparator;
+import java.util.List;
+import static org.junit.jupiter.api.Assertions.*;
+
+// Query scans against a full scan followed by a full sort.
+public class BoundedSelection_Test {
+
+    private final Radar radar = new Radar("R", 40.0, 0.3, 1, -2);
+    private final List<Target> targets = ScanFixtures.randomTargets(21, 8_000, 60.0);
+
+    @ParameterizedTest
+    @ValueSource(ints = {0, 1, 5, 100, 100_000})
+    void topKBySnrMatchesFullSort(int k) {
+        List<Detection> expected = radar.scan(targets).stream()
+                .sorted(Comparator.comparingDouble(Detection::getSnr).reversed())
+                .limit(k).toList();
+        assertIterableEquals(ScanFixtures.describe(expected), ScanFixtures.describe(radar.topKBySnr(targets, k)));
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 7, 250})
+    void nearestMatchesFullSort(int k) {
+        List<Detection> expected = radar.scan(targets).stream()
+                .sorted(Comparator.comparingDouble(Detection::getDistanceKm))
+                .limit(k).toList();
+        assertIterableEquals(ScanFixtures.describe(expected), ScanFixtures.describe(radar.nearest(targets, k)));
+    }
+
+    @Test
+    void nearestWithFilterKeepsOnlyMatchingDetections() {
+        List<Detection> expected = radar.scan(targets).stream()
+                .filter(d -> d.getPriority() == DetectionPriority.PRIORITY_1_INTERCEPT)
+                .sorted(Comparator.comparingDouble(Detection::getDistanceKm))
+                .limit(10).toList();
+        List<Detection> actual = radar.nearest(targets, 10, d -> d.getPriority() == DetectionPriority.PRIORITY_1_INTERCEPT);
+        assertFalse(actual.isEmpty());
+        assertIterableEquals(ScanFixtures.describe(expected), ScanFixtures.describe(actual));
+    }
+
+    @Test
+    void scanAtLeastIsAFilteredScan() {
+        for (ThreatLevel min : ThreatLevel.values()) {
+            List<Detection> expected = radar.scan(targets).stream().filter(d -> d.getThreat().compareTo(min) >= 0).toList();
+            assertIterableEquals(ScanFixtures.describe(expected), ScanFixtures.describe(radar.scanAtLeast(targets, min)));
+        }
+    }
+
+    @Test
+    void queryScansShareTheScanGate() {
+        // bearing mode and metrics apply to the query scans exactly as to scan()
+        ScanMetrics metrics = new ScanMetrics();
+        Radar fast = radar.withBearingMode(BearingMode.FAST).withMetrics(metrics);
+        List<Detection> full = fast.scan(targets);
+        assertIterableEquals(ScanFixtures.describe(full), ScanFixtures.describe(fast.scanAtLeast(targets, ThreatLevel.LOW)));
+        List<Detection> expected = full.stream().sorted(Comparator.comparingDouble(Detection::getDistanceKm)).limit(5).toList();
+        assertIterableEquals(ScanFixtures.describe(expected), ScanFixtures.describe(fast.nearest(targets, 5)));
+        assertEquals(3, metrics.getScans());
+        assertEquals(3L * targets.size(), metrics.getTargetsExamined());
+    }
+
+    @Test
+    void tiesAreBrokenByIdThenArrival() {
+        Radar r = new Radar("R", 10, 0.1);
+        List<Target> same = List.of(new Target("B", 1, 0, 2), new Target("A", 0, 1, 2), new Target("A", -1, 0, 2));
+        List<Detection> top = r.topKBySnr(same, 2);
+        assertEquals(List.of("A", "A"), top.stream().map(Detection::getTargetId).toList());
+        assertEquals(90.0, top.get(0).getBearingDeg(), 1e-9);
+        assertThrows(IllegalArgumentException.class, () -> r.nearest(same, -1));
+    }
+}
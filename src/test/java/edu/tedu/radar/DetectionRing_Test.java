@@ -0,0 +1,135 @@
+package edu.tedu.radar;
+
+import org.junit.jupiter.api.Test;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DetectionRing_Test {
+
+    private final Radar radar = new Radar("R", 40.0, 0.4);
+    private final List<Target> plain = ScanFixtures.randomTargets(31, 3_000, 60.0);
+    private final TargetIdDictionary ids = TargetIdDictionary.of(plain.stream().map(Target::getId).toList());
+    private final TargetBatch batch = TargetBatch.of(ids, plain);
+
+    private static List<String> drain(DetectionRing.Consumer c, List<Long> sweeps) {
+        List<String> out = new ArrayList<>();
+        c.poll((sweep, handle, row, d, b, snr, t) -> {
+            sweeps.add(sweep);
+            out.add(ScanFixtures.describe(c.toDetection(handle, d, b, snr, t)));
+        }, Integer.MAX_VALUE);
+        return out;
+    }
+
+    @Test
+    void consumerReadsWhatRadarPublished() throws InterruptedException {
+        DetectionRing ring = new DetectionRing(4_000, ids, WaitStrategy.BUSY_SPIN);
+        assertEquals(4_096, ring.capacity());
+        DetectionRing.Consumer c = ring.newConsumer(WaitStrategy.PARK);
+        assertEquals(0, radar.scan(batch, new DetectionBatch(), ring));
+        List<Long> sweeps = new ArrayList<>();
+        assertIterableEquals(ScanFixtures.describe(radar.scan(plain)), drain(c, sweeps));
+        assertTrue(sweeps.stream().allMatch(s -> s == 0));
+        assertEquals(0, c.available());
+    }
+
+    @Test
+    void everyConsumerSeesEverySweepThroughASmallRing() throws Exception {
+        List<String> expectedSweep = ScanFixtures.describe(radar.scan(plain));
+        int sweeps = 20;
+        for (WaitStrategy wait : WaitStrategy.values()) {
+            DetectionRing ring = new DetectionRing(64, ids, wait);
+            List<List<String>> received = new ArrayList<>();
+            List<Thread> threads = new ArrayList<>();
+            for (int k = 0; k < 3; k++) {
+                DetectionRing.Consumer c = ring.newConsumer(wait);
+                List<String> got = new CopyOnWriteArrayList<>();
+                received.add(got);
+                threads.add(Thread.ofPlatform().start(() -> {
+                    try {
+                        while (got.size() < expectedSweep.size() * sweeps) {
+                            c.take((sweep, handle, row, d, b, snr, t) ->
+                                    got.add(sweep + ":" + ScanFixtures.describe(c.toDetection(handle, d, b, snr, t))), 100);
+                        }
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }));
+            }
+            DetectionBatch scratch = new DetectionBatch();
+            for (int s = 0; s < sweeps; s++) radar.scan(batch, scratch, ring);
+            for (Thread t : threads) t.join(30_000);
+
+            List<String> expected = new ArrayList<>();
+            for (int s = 0; s < sweeps; s++) for (String d : expectedSweep) expected.add(s + ":" + d);
+            for (List<String> got : received) assertIterableEquals(expected, got, wait.name());
+        }
+    }
+
+    @Test
+    void consumersJoiningMidStreamSeeAnUnbrokenSuffix() throws Exception {
+        List<String> expectedSweep = ScanFixtures.describe(radar.scan(plain));
+        int n = expectedSweep.size(), sweeps = 40;
+        DetectionRing ring = new DetectionRing(64, ids, WaitStrategy.YIELD);
+        List<String> errors = new CopyOnWriteArrayList<>();
+        List<Thread> readers = new CopyOnWriteArrayList<>();
+        boolean[] done = new boolean[1];
+        Thread joiner = Thread.ofPlatform().start(() -> {
+            for (int k = 0; k < 20; k++) {
+                DetectionRing.Consumer c = ring.newConsumer(WaitStrategy.YIELD);
+                long start = c.getSequence();
+                readers.add(Thread.ofPlatform().start(() -> {
+                    long[] seq = {start};
+                    // the producer may finish before this reader's first poll, so drain after done
+                    while (true) {
+                        boolean finished;
+                        synchronized (done) { finished = done[0]; }
+                        int read = c.poll((sweep, handle, row, d, b, snr, t) -> {
+                            long at = seq[0]++;
+                            String got = ScanFixtures.describe(c.toDetection(handle, d, b, snr, t));
+                            if (sweep != at / n || !got.equals(expectedSweep.get((int) (at % n)))) errors.add("record " + at + " from " + start);
+                        }, 100);
+                        if (read == 0 && finished) break;
+                        Thread.yield();
+                    }
+                    c.close();
+                }));
+                Thread.yield();
+            }
+        });
+        DetectionBatch scratch = new DetectionBatch();
+        for (int s = 0; s < sweeps; s++) radar.scan(batch, scratch, ring);
+        joiner.join(30_000);
+        synchronized (done) { done[0] = true; }
+        for (Thread t : readers) t.join(30_000);
+        assertEquals(20, readers.size());
+        assertEquals(List.of(), errors);
+    }
+
+    @Test
+    void closedConsumerNoLongerGatesTheProducer() throws InterruptedException {
+        DetectionRing ring = new DetectionRing(8, ids, WaitStrategy.YIELD);
+        DetectionRing.Consumer c = ring.newConsumer(WaitStrategy.YIELD);
+        c.close();
+        ring.publish(radar.scan(batch, new DetectionBatch()));
+        assertTrue(ring.getPublishedCount() > ring.capacity());
+    }
+
+    @Test
+    void idsOutsideTheDictionaryTravelAsMinusOne() throws InterruptedException {
+        DetectionRing ring = new DetectionRing(16, TargetIdDictionary.of(List.of("other")), WaitStrategy.BUSY_SPIN);
+        DetectionRing.Consumer c = ring.newConsumer(WaitStrategy.BUSY_SPIN);
+        ring.publish(radar.scan(TargetBatch.of(List.of(new Target("T1", 1, 1, 10))), new DetectionBatch()));
+        List<Integer> handles = new ArrayList<>();
+        c.poll((sweep, handle, row, d, b, snr, t) -> handles.add(handle), 16);
+        assertEquals(List.of(-1), handles);
+    }
+
+    @Test
+    void rejectsInvalidArguments() {
+        assertThrows(IllegalArgumentException.class, () -> new DetectionRing(0, ids, WaitStrategy.PARK));
+        assertThrows(IllegalArgumentException.class, () -> new DetectionRing(8, null, WaitStrategy.PARK));
+        assertThrows(IllegalArgumentException.class, () -> new DetectionRing(8, ids, WaitStrategy.PARK).newConsumer(null));
+    }
+}
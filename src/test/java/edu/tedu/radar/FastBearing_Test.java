@@ -0,0 +1,79 @@
+package edu.tedu.radar;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.jupiter.params.provider.ValueSource;
+import java.util.List;
+import java.util.Random;
+import static org.junit.jupiter.api.Assertions.*;
+
+// Property-style accuracy checks of the table bearing against Radar.bearingDeg.
+public class FastBearing_Test {
+
+    private final Radar exact = new Radar("R", 100, 0.5);
+
+    private static double angularError(double a, double b) {
+        double d = Math.abs(a - b) % 360;
+        return Math.min(d, 360 - d);
+    }
+
+    private void assertWithinBound(double dx, double dy) {
+        double fast = FastBearing.bearingDeg(dx, dy);
+        assertTrue(fast >= 0 && fast < 360, "out of [0, 360): " + fast);
+        double error = angularError(fast, exact.bearingDeg(0, 0, dx, dy));
+        assertTrue(error <= FastBearing.MAX_ERROR_DEG, "error " + error + " at (" + dx + ", " + dy + ")");
+    }
+
+    // Random points at scales from metres to thousands of km, all four quadrants.
+    @ParameterizedTest
+    @ValueSource(longs = {1L, 2L, 3L, 4L, 5L})
+    void randomPointsStayWithinTheDocumentedBound(long seed) {
+        Random rnd = new Random(seed);
+        for (int i = 0; i < 200_000; i++) {
+            double scale = Math.pow(10, rnd.nextInt(8) - 3);
+            assertWithinBound((rnd.nextDouble() * 2 - 1) * scale, (rnd.nextDouble() * 2 - 1) * scale);
+        }
+    }
+
+    // Octant edges, where the folding logic switches branches.
+    @Test
+    void axesAndDiagonalsStayWithinTheBound() {
+        double[] v = {-1, -Math.nextDown(1.0), -1e-300, -0.0, 0.0, 1e-300, Math.nextUp(1.0), 1};
+        for (double dx : v) for (double dy : v) assertWithinBound(dx, dy);
+        for (int deg = 0; deg < 360; deg++) {
+            double r = Math.toRadians(deg);
+            assertWithinBound(Math.cos(r), Math.sin(r));
+        }
+    }
+
+    @ParameterizedTest
+    @CsvSource({"1, 0, 0", "0, 1, 90", "-1, 0, 180", "0, -1, 270", "-1, -1, 225"})
+    void cardinalBearingsAreExact(double dx, double dy, double expected) {
+        assertEquals(expected, FastBearing.bearingDeg(dx, dy), 1e-12);
+    }
+
+    @Test
+    void nonFiniteInputFollowsTheExactPath() {
+        assertTrue(Double.isNaN(FastBearing.bearingDeg(Double.NaN, 1)));
+        assertEquals(exact.bearingDeg(0, 0, Double.POSITIVE_INFINITY, 1), FastBearing.bearingDeg(Double.POSITIVE_INFINITY, 1));
+    }
+
+    @Test
+    void fastRadarOnlyDiffersInBearing() {
+        Radar fast = new Radar("F", 40.0, 0.4, 2, -3).withBearingMode(BearingMode.FAST);
+        Radar precise = new Radar("F", 40.0, 0.4, 2, -3);
+        List<Target> targets = ScanFixtures.randomTargets(8, 5_000, 60.0);
+        List<Detection> a = fast.scan(targets), b = precise.scan(targets);
+
+        assertEquals(BearingMode.FAST, fast.getBearingMode());
+        assertEquals(BearingMode.EXACT, precise.getBearingMode());
+        assertEquals(b.size(), a.size());
+        for (int i = 0; i < a.size(); i++) {
+            assertEquals(b.get(i).getTargetId(), a.get(i).getTargetId());
+            assertEquals(b.get(i).getSnr(), a.get(i).getSnr());
+            assertEquals(b.get(i).getThreat(), a.get(i).getThreat());
+            assertTrue(angularError(a.get(i).getBearingDeg(), b.get(i).getBearingDeg()) <= FastBearing.MAX_ERROR_DEG);
+        }
+    }
+}
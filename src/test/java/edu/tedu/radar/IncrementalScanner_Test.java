@@ -0,0 +1,76 @@
+package edu.tedu.radar;
+
+import org.junit.jupiter.api.Test;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class IncrementalScanner_Test {
+
+    @Test
+    void sweepReportsAddedDroppedAndChanged() {
+        IncrementalScanner scanner = new IncrementalScanner(new Radar("R", 10.0, 1.0));
+        scanner.upsert(new Target("A", 1, 0, 4.1));   // snr 2.05 -> HIGH
+        scanner.upsert(new Target("B", 1, 0, 2.5));   // snr 1.25 -> MEDIUM
+        scanner.upsert(new Target("C", 20, 0, 50));   // out of range
+        SweepDelta first = scanner.sweep();
+
+        assertEquals(List.of("A", "B"), first.getAdded().stream().map(Detection::getTargetId).toList());
+        assertTrue(first.getDropped().isEmpty());
+        assertEquals(3, scanner.getTargetCount());
+
+        scanner.upsert(new Target("A", 1, 0, 2.4));   // snr 1.2 -> LOW
+        scanner.upsert(new Target("C", 1, 0, 4.1));   // moves into range
+        scanner.remove("B");
+        SweepDelta second = scanner.sweep();
+
+        assertEquals("C", second.getAdded().get(0).getTargetId());
+        assertEquals(ThreatLevel.MEDIUM, second.getDropped().get(0).getThreat());
+        assertEquals(ThreatLevel.LOW, second.getChanged().get(0).getThreat());
+        assertTrue(scanner.sweep().isEmpty());
+    }
+
+    @Test
+    void unchangedUpdateEmitsNothing() {
+        IncrementalScanner scanner = new IncrementalScanner(new Radar("R", 10.0, 1.0));
+        scanner.upsert(new Target("A", 1, 0, 4.1));
+        scanner.sweep();
+        scanner.upsert(new Target("A", 1, 0, 4.1));
+        assertTrue(scanner.sweep().isEmpty());
+    }
+
+    @Test
+    void detectionsTrackFullScanUnderRandomDeltas() {
+        Radar radar = new Radar("R", 30.0, 0.4);
+        IncrementalScanner scanner = new IncrementalScanner(radar);
+        Map<String, Target> world = new LinkedHashMap<>();
+        Random rnd = new Random(11);
+        for (int sweep = 0; sweep < 20; sweep++) {
+            for (int k = 0; k < 300; k++) {
+                String id = "T" + rnd.nextInt(1_000);
+                if (rnd.nextInt(5) == 0) {
+                    world.remove(id);
+                    scanner.remove(id);
+                } else {
+                    Target t = new Target(id, rnd.nextDouble() * 80 - 40, rnd.nextDouble() * 80 - 40, rnd.nextDouble() * 10);
+                    world.put(id, t);
+                    scanner.upsert(t);
+                }
+            }
+            scanner.sweep();
+            assertIterableEquals(ScanFixtures.describe(radar.scan(new ArrayList<>(world.values()))),
+                    ScanFixtures.describe(new ArrayList<>(scanner.getDetections())));
+        }
+    }
+
+    @Test
+    void nullIdsAreRejected() {
+        IncrementalScanner scanner = new IncrementalScanner(new Radar("R", 10.0, 1.0));
+        assertThrows(IllegalArgumentException.class, () -> scanner.upsert(new Target(null, 0, 0, 1)));
+        assertThrows(IllegalArgumentException.class, () -> scanner.remove(null));
+        assertThrows(IllegalArgumentException.class, () -> new IncrementalScanner(null));
+    }
+}
@@ -0,0 +1,65 @@
+package edu.tedu.radar;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ParallelScanTask_Test {
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 64, 1_000, 100_000})
+    void parallelScanMatchesSequentialScan(int threshold) {
+        Radar radar = new Radar("R", 50.0, 0.3);
+        List<Target> targets = ScanFixtures.randomTargets(threshold, 30_000, 80.0);
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            assertIterableEquals(ScanFixtures.describe(radar.scan(targets)),
+                    ScanFixtures.describe(radar.scanParallel(targets, pool, threshold)));
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void duplicateIdsKeepSequentialOrderAcrossPartitions() {
+        Radar radar = new Radar("R", 50.0, 0.1);
+        List<Target> targets = new LinkedList<>();
+        for (int i = 0; i < 200; i++) targets.add(new Target(i % 2 == 0 ? "SAME" : "B" + i, i % 40, 1, 5 + i));
+        ForkJoinPool pool = new ForkJoinPool(3);
+        try {
+            assertIterableEquals(ScanFixtures.describe(radar.scan(targets)),
+                    ScanFixtures.describe(radar.scanParallel(targets, pool, 8)));
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void meteredParallelScanRecordsOneSweep() {
+        ScanMetrics metrics = new ScanMetrics();
+        Radar radar = new Radar("R", 50.0, 0.3).withMetrics(metrics);
+        List<Target> targets = ScanFixtures.randomTargets(8, 30_000, 80.0);
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            List<Detection> detections = radar.scanParallel(targets, pool, 1_000);
+            assertIterableEquals(ScanFixtures.describe(ScanFixtures.referenceScan(radar, targets)), ScanFixtures.describe(detections));
+            assertEquals(1, metrics.getScans());
+            assertEquals(targets.size(), metrics.getTargetsExamined());
+            assertEquals(targets.size() - detections.size(), metrics.getRejectedByRange() + metrics.getRejectedBySnr());
+            assertEquals(detections.size(), metrics.getDetectionsMaterialized());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void thresholdMustBePositive() {
+        Radar radar = new Radar("R", 50.0, 0.1);
+        assertThrows(IllegalArgumentException.class, () -> radar.scanParallel(List.of(), ForkJoinPool.commonPool(), 0));
+        assertTrue(radar.scanParallel(List.of()).isEmpty());
+    }
+}
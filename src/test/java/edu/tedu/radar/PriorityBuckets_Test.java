@@ -0,0 +1,65 @@
+package edu.tedu.radar;
+
+import org.junit.jupiter.api.Test;
+import java.util.ArrayList;
+import java.util.List;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PriorityBuckets_Test {
+
+    private final List<Detection> sweep = List.of(
+            new Detection("A", 20.0, 0, 4.0, ThreatLevel.MEDIUM), // 3
+            new Detection("B", 5.0, 0, 5.0, ThreatLevel.HIGH),    // 1
+            new Detection("C", 5.0, 0, 5.0, ThreatLevel.LOW),     // 4
+            new Detection("D", 15.0, 0, 5.0, ThreatLevel.HIGH),   // 2
+            new Detection("E", 9.9, 0, 5.0, ThreatLevel.HIGH),    // 1
+            new Detection("F", 20.0, 0, 2.0, ThreatLevel.MEDIUM)  // 4
+    );
+
+    @Test
+    void enumMatchesTheStringRules() {
+        for (Detection d : sweep) assertEquals(d.assessDetectionPriority(), d.getPriority().name());
+        assertEquals(DetectionPriority.PRIORITY_1_INTERCEPT, DetectionPriority.of(ThreatLevel.HIGH, 9.99, 0));
+        assertEquals(DetectionPriority.PRIORITY_2_MONITOR, DetectionPriority.of(ThreatLevel.HIGH, 10.0, 0));
+        assertEquals(DetectionPriority.PRIORITY_3_TRACK, DetectionPriority.of(ThreatLevel.MEDIUM, 0, 3.01));
+        assertEquals(DetectionPriority.PRIORITY_4_LOG, DetectionPriority.of(ThreatLevel.MEDIUM, 0, 3.0));
+    }
+
+    @Test
+    void bucketsDrainInPriorityThenListOrder() {
+        PriorityBuckets buckets = new PriorityBuckets().classify(sweep);
+
+        assertEquals(6, buckets.size());
+        assertEquals(2, buckets.count(DetectionPriority.PRIORITY_1_INTERCEPT));
+        assertEquals(1, buckets.count(DetectionPriority.PRIORITY_2_MONITOR));
+        assertEquals(1, buckets.count(DetectionPriority.PRIORITY_3_TRACK));
+        assertEquals(2, buckets.count(DetectionPriority.PRIORITY_4_LOG));
+        assertEquals(4, buckets.get(DetectionPriority.PRIORITY_1_INTERCEPT, 1));
+
+        List<String> drained = new ArrayList<>();
+        for (int k = 0; k < buckets.size(); k++) drained.add(sweep.get(buckets.indexes()[k]).getTargetId());
+        assertEquals(List.of("B", "E", "D", "A", "C", "F"), drained);
+        assertThrows(IndexOutOfBoundsException.class, () -> buckets.get(DetectionPriority.PRIORITY_2_MONITOR, 1));
+    }
+
+    @Test
+    void batchAndListClassificationAgree() {
+        Radar radar = new Radar("R", 40.0, 0.2);
+        List<Target> targets = ScanFixtures.randomTargets(12, 3_000, 50.0);
+        DetectionBatch batch = radar.scan(TargetBatch.of(targets), new DetectionBatch());
+        List<Detection> list = radar.scan(targets);
+
+        PriorityBuckets fromBatch = new PriorityBuckets().classify(batch);
+        PriorityBuckets fromList = new PriorityBuckets().classify(list);
+        for (DetectionPriority p : DetectionPriority.values()) {
+            assertEquals(fromList.count(p), fromBatch.count(p));
+            for (int k = fromBatch.from(p); k < fromBatch.to(p); k++) {
+                assertEquals(p, list.get(fromBatch.indexes()[k]).getPriority());
+            }
+        }
+
+        // reuse with a smaller sweep resets the buckets
+        fromBatch.classify(sweep);
+        assertEquals(2, fromBatch.count(DetectionPriority.PRIORITY_1_INTERCEPT));
+    }
+}
@@ -0,0 +1,58 @@
+package edu.tedu.radar;
+
+import org.junit.jupiter.api.Test;
+import java.util.List;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RadarNetwork_Test {
+
+    @Test
+    void perStationOutputMatchesIndividualScans() {
+        List<Radar> radars = List.of(
+                new Radar("N", 30.0, 0.3, 0, 20),
+                new Radar("S", 45.0, 0.5, 0, -20),
+                new Radar("O", 25.0, 0.2),
+                new Radar("E", 10.0, 0.0, 35, 5));
+        List<Target> targets = ScanFixtures.randomTargets(5, 10_000, 60.0);
+
+        NetworkScan result = new RadarNetwork(radars).scan(targets);
+
+        assertEquals(4, result.stationCount());
+        for (int s = 0; s < radars.size(); s++) {
+            assertIterableEquals(ScanFixtures.describe(radars.get(s).scan(targets)),
+                    ScanFixtures.describe(result.getDetections(s)));
+        }
+        assertIterableEquals(ScanFixtures.describe(ScanFixtures.referenceScan(radars.get(2), targets)),
+                ScanFixtures.describe(result.getDetections(radars.get(2))));
+    }
+
+    @Test
+    void fusionKeepsBestSnrAndHighestThreat() {
+        Radar near = new Radar("NEAR", 50.0, 1.0, 9, 0);   // A at 1 km: snr 2.05 -> HIGH
+        Radar far = new Radar("FAR", 50.0, 0.1, -10, 0);   // A at 20 km: snr ~0.2 -> HIGH for this station
+        Radar strict = new Radar("STRICT", 50.0, 1.3, 10, 2); // A at 2 km: snr ~1.37 -> LOW
+        List<Target> targets = List.of(new Target("A", 10, 0, 4.1), new Target("B", -10, 0, 0.5));
+
+        NetworkScan result = new RadarNetwork(List.of(far, strict, near)).scan(targets);
+        List<FusedDetection> fused = result.getFused();
+
+        assertEquals(List.of("A", "B"), fused.stream().map(FusedDetection::getTargetId).toList());
+        FusedDetection a = fused.get(0);
+        assertEquals(3, a.getStationCount());
+        assertEquals("NEAR", a.getBestRadarId());
+        assertEquals(2.05, a.getSnr(), 1e-9);
+        assertEquals(ThreatLevel.HIGH, a.getThreat());
+        assertEquals(1, fused.get(1).getStationCount());
+    }
+
+    @Test
+    void positionIsValidatedAndShiftsGeometry() {
+        assertThrows(IllegalArgumentException.class, () -> new Radar("R", 10, 0.5, Double.NaN, 0));
+        assertThrows(IllegalArgumentException.class, () -> new RadarNetwork(List.of()));
+
+        Radar offset = new Radar("R", 10.0, 0.1, 100, 100);
+        Detection d = offset.scan(List.of(new Target("A", 103, 104, 5))).get(0);
+        assertEquals(5.0, d.getDistanceKm(), 1e-9);
+        assertEquals(53.130102, d.getBearingDeg(), 1e-5);
+    }
+}
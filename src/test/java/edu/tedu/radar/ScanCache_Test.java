@@ -0,0 +1,122 @@
+package edu.tedu.radar;
+
+import org.junit.jupiter.api.Test;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ScanCache_Test {
+
+    private final Radar radar = new Radar("R", 40.0, 0.4);
+    private final List<Target> targets = ScanFixtures.randomTargets(11, 1_000, 60.0);
+    private final AtomicLong clock = new AtomicLong();
+
+    @Test
+    void repeatedScanIsServedFromCache() {
+        ScanCache cache = new ScanCache(8, Duration.ofMinutes(1), clock::get);
+        List<Detection> first = cache.scan(radar, targets);
+        assertIterableEquals(ScanFixtures.describe(radar.scan(targets)), ScanFixtures.describe(first));
+        assertSame(first, cache.scan(radar, new ArrayList<>(targets)));
+        assertEquals(1, cache.getHitCount());
+        assertEquals(1, cache.getMissCount());
+        assertThrows(UnsupportedOperationException.class, () -> first.clear());
+    }
+
+    @Test
+    void changedTargetsOrRadarParametersMiss() {
+        ScanCache cache = new ScanCache(8, Duration.ofMinutes(1), clock::get);
+        cache.scan(radar, targets);
+        List<Target> moved = new ArrayList<>(targets);
+        Target t = moved.get(500);
+        moved.set(500, new Target(t.getId(), t.getX() + 1e-9, t.getY(), t.getRcs()));
+        assertIterableEquals(ScanFixtures.describe(radar.scan(moved)), ScanFixtures.describe(cache.scan(radar, moved)));
+        cache.scan(new Radar("R", 40.0, 0.5), targets);
+        cache.scan(new Radar("R", 40.0, 0.4, 1.0, 0.0), targets);
+        cache.scan(radar.withBearingMode(BearingMode.FAST), targets);
+        assertEquals(0, cache.getHitCount());
+        assertEquals(5, cache.getMissCount());
+        assertEquals(5, cache.size());
+    }
+
+    @Test
+    void fingerprintCollisionIsAMissNotAWrongAnswer() {
+        // "Aa" and "BB" share a String.hashCode, so both pictures get the same fingerprint
+        ScanCache cache = new ScanCache(8, Duration.ofMinutes(1), clock::get);
+        List<Target> aa = List.of(new Target("Aa", 1, 1, 5)), bb = List.of(new Target("BB", 1, 1, 5));
+        assertEquals(ScanCache.fingerprint(aa), ScanCache.fingerprint(bb));
+        assertEquals("Aa", cache.scan(radar, aa).get(0).getTargetId());
+        assertEquals("BB", cache.scan(radar, bb).get(0).getTargetId());
+
+        TargetSet setAa = new TargetSet(), setBb = new TargetSet();
+        setAa.put(aa.get(0));
+        setBb.put(bb.get(0));
+        assertEquals(setAa.fingerprint(), setBb.fingerprint());
+        assertEquals("Aa", cache.scan(radar, setAa).get(0).getTargetId());
+        assertEquals("BB", cache.scan(radar, setBb).get(0).getTargetId());
+        assertEquals(0, cache.getHitCount());
+    }
+
+    @Test
+    void targetSetIsLookedUpByItsRunningFingerprint() {
+        ScanCache cache = new ScanCache(8, Duration.ofMinutes(1), clock::get);
+        TargetSet set = new TargetSet(), reversed = new TargetSet();
+        for (int i = 0; i < 1_000; i++) {
+            set.put(new Target("T" + i, targets.get(i).getX(), targets.get(i).getY(), targets.get(i).getRcs()));
+        }
+        for (int i = set.size() - 1; i >= 0; i--) reversed.put(set.asList().get(i));
+        List<Detection> first = cache.scan(radar, set);
+        assertIterableEquals(ScanFixtures.describe(radar.scan(set.asList())), ScanFixtures.describe(first));
+        assertEquals(set.fingerprint(), reversed.fingerprint());
+        assertSame(first, cache.scan(radar, reversed));
+
+        Target t = set.get("T500");
+        set.put(new Target("T500", t.getX() + 1e-9, t.getY(), t.getRcs()));
+        List<Detection> moved = cache.scan(radar, set);
+        assertIterableEquals(ScanFixtures.describe(radar.scan(set.asList())), ScanFixtures.describe(moved));
+        set.put(t);  // back to the first picture
+        assertSame(first, cache.scan(radar, set));
+        set.remove("T7");
+        cache.scan(radar, set);
+        assertEquals(2, cache.getHitCount());
+        assertEquals(3, cache.getMissCount());
+        assertThrows(IllegalArgumentException.class, () -> set.put(new Target(null, 0, 0, 1)));
+    }
+
+    @Test
+    void evictsLeastRecentlyUsedAndExpiredEntries() {
+        ScanCache cache = new ScanCache(2, Duration.ofSeconds(10), clock::get);
+        List<Target> a = targets.subList(0, 100), b = targets.subList(100, 200), c = targets.subList(200, 300);
+        cache.scan(radar, a);
+        cache.scan(radar, b);
+        cache.scan(radar, a);           // a is now most recently used
+        cache.scan(radar, c);           // evicts b
+        assertEquals(2, cache.size());
+        assertEquals(1, cache.getEvictionCount());
+        cache.scan(radar, a);
+        assertEquals(2, cache.getHitCount());
+
+        clock.addAndGet(Duration.ofSeconds(10).toNanos());
+        cache.scan(radar, a);
+        assertEquals(2, cache.getHitCount());
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    void concurrentScansAgreeWithDirectScan() {
+        ScanCache cache = new ScanCache(4, Duration.ofMinutes(1));
+        List<String> expected = ScanFixtures.describe(radar.scan(targets));
+        IntStream.range(0, 64).parallel().forEach(i ->
+                assertIterableEquals(expected, ScanFixtures.describe(cache.scan(radar, targets))));
+        assertEquals(64, cache.getHitCount() + cache.getMissCount());
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    void rejectsInvalidArguments() {
+        assertThrows(IllegalArgumentException.class, () -> new ScanCache(0, Duration.ofSeconds(1)));
+        assertThrows(IllegalArgumentException.class, () -> new ScanCache(1, Duration.ZERO));
+    }
+}
@@ -0,0 +1,55 @@
+package edu.tedu.radar;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+// Shared test data: seeded target pictures and the original list-based scan as an oracle.
+final class ScanFixtures {
+    private ScanFixtures() {}
+
+    // Targets spread over a square of the given half-width; ids repeat now and then so
+    // the stable-sort tie order is exercised too.
+    static List<Target> randomTargets(long seed, int count, double halfWidthKm) {
+        Random rnd = new Random(seed);
+        List<Target> targets = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            String id = rnd.nextInt(10) == 0 ? "T" + rnd.nextInt(Math.max(1, i + 1)) : "T" + i;
+            double x = (rnd.nextDouble() * 2 - 1) * halfWidthKm;
+            double y = (rnd.nextDouble() * 2 - 1) * halfWidthKm;
+            targets.add(new Target(id, x, y, rnd.nextDouble() * 20));
+        }
+        return targets;
+    }
+
+    // The scan exactly as it was written before the columnar path existed.
+    static List<Detection> referenceScan(Radar radar, List<Target> targets) {
+        List<Detection> detections = new ArrayList<>();
+        for (Target t : targets) {
+            double distance = radar.distanceKm(0, 0, t.getX(), t.getY());
+            if (distance <= radar.getMaxRangeKm()) {
+                double snr = t.getRcs() / (1.0 + distance);
+                if (snr >= radar.getSnrThreshold()) {
+                    double bearing = radar.bearingDeg(0, 0, t.getX(), t.getY());
+                    ThreatLevel level = snr > radar.getSnrThreshold() * 2 ? ThreatLevel.HIGH :
+                            snr > radar.getSnrThreshold() * 1.2 ? ThreatLevel.MEDIUM :
+                                    ThreatLevel.LOW;
+                    detections.add(new Detection(t.getId(), distance, bearing, snr, level));
+                }
+            }
+        }
+        detections.sort(Comparator.comparing(Detection::getTargetId));
+        return detections;
+    }
+
+    static String describe(Detection d) {
+        return d.getTargetId() + "|" + Double.doubleToRawLongBits(d.getDistanceKm())
+                + "|" + Double.doubleToRawLongBits(d.getBearingDeg())
+                + "|" + Double.doubleToRawLongBits(d.getSnr()) + "|" + d.getThreat();
+    }
+
+    static List<String> describe(List<Detection> detections) {
+        return detections.stream().map(ScanFixtures::describe).toList();
+    }
+}
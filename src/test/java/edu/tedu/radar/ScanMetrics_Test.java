@@ -0,0 +1,159 @@
+package edu.tedu.radar;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Flow;
+import javax.management.ObjectName;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ScanMetrics_Test {
+
+    private static final List<Target> TARGETS = List.of(
+            new Target("A", 3, 4, 5),     // snr 0.83 -> MEDIUM
+            new Target("B", 12, 0, 10),   // out of range
+            new Target("C", 1, 1, 0.3),   // below SNR
+            new Target("D", 1, 0, 5));    // snr 2.5 -> HIGH
+
+    @Test
+    void countersFollowTheGateOutcomes() {
+        ScanMetrics metrics = new ScanMetrics();
+        Radar radar = new Radar("R1", 10.0, 0.5).withMetrics(metrics);
+
+        List<Detection> detections = radar.scan(TARGETS);
+
+        assertEquals(2, detections.size());
+        assertEquals(1, metrics.getScans());
+        assertEquals(4, metrics.getTargetsExamined());
+        assertEquals(1, metrics.getRejectedByRange());
+        assertEquals(1, metrics.getRejectedBySnr());
+        assertEquals(1, metrics.getHighDetections());
+        assertEquals(1, metrics.getMediumDetections());
+        assertEquals(0, metrics.getLowDetections());
+        assertEquals(2, metrics.getDetectionsMaterialized());
+        assertEquals(1, metrics.getScanLatency().getCount());
+        assertSame(metrics, radar.getMetrics());
+        assertNull(new Radar("R", 1, 0).getMetrics());
+    }
+
+    @Test
+    void gridPrunedTargetsCountAsOutOfRange() {
+        ScanMetrics metrics = new ScanMetrics();
+        TargetBatch batch = TargetBatch.of(TARGETS);
+        batch.add("FAR", 500, 500, 1);
+        new Radar("R1", 10.0, 0.5).withMetrics(metrics).scan(new TargetGrid(batch, 1.0), new DetectionBatch());
+
+        assertEquals(5, metrics.getTargetsExamined());
+        assertEquals(2, metrics.getRejectedByRange());
+        assertEquals(1, metrics.getRejectedBySnr());
+    }
+
+    @Test
+    void everyScanPathRecordsItsSweep(@TempDir Path dir) throws Exception {
+        ScanMetrics metrics = new ScanMetrics();
+        Radar radar = new Radar("R1", 10.0, 0.5).withMetrics(metrics);
+
+        radar.scanAdaptive(TARGETS, radar.newAdaptiveThreshold(4, 8, 0.2, 3.0));
+        new RadarNetwork(List.of(radar, new Radar("R2", 10.0, 0.5))).scan(TARGETS);
+        Path file = dir.resolve("t.rtgt");
+        try (TargetFileWriter writer = new TargetFileWriter(file)) {
+            writer.writeAll(TARGETS);
+        }
+        try (TargetFileReader reader = new TargetFileReader(file)) {
+            reader.scan(radar, new DetectionBatch());
+        }
+        StreamingScanner streaming = new StreamingScanner(radar);
+        streaming.scanWindowed(TARGETS.iterator(), 3).forEachRemaining(d -> { });   // windows of 3 and 1
+        streaming.scan(TARGETS.iterator()).forEachRemaining(d -> { });              // plain: not recorded
+
+        Flow.Processor<Target, Detection> processor = streaming.processor(4);
+        List<Detection> received = new ArrayList<>();
+        processor.subscribe(new Flow.Subscriber<>() {
+            public void onSubscribe(Flow.Subscription s) { s.request(Long.MAX_VALUE); }
+            public void onNext(Detection d) { received.add(d); }
+            public void onError(Throwable t) { }
+            public void onComplete() { }
+        });
+        processor.onSubscribe(new Flow.Subscription() {
+            public void request(long n) { }
+            public void cancel() { }
+        });
+        TARGETS.forEach(processor::onNext);
+        processor.onComplete();
+        assertEquals(2, received.size());
+
+        // adaptive, one network station, the file, two iterator windows and one processor window;
+        // every path saw the four targets once
+        assertEquals(6, metrics.getScans());
+        assertEquals(5 * 4, metrics.getTargetsExamined());
+        assertEquals(5, metrics.getRejectedByRange());
+        assertEquals(5, metrics.getRejectedBySnr());
+        assertEquals(5, metrics.getHighDetections());
+    }
+
+    @Test
+    void concurrentScansAreCountedExactly() throws InterruptedException {
+        ScanMetrics metrics = new ScanMetrics();
+        Radar radar = new Radar("R1", 10.0, 0.5).withMetrics(metrics);
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            threads.add(Thread.ofPlatform().start(() -> {
+                for (int i = 0; i < 500; i++) radar.scan(TARGETS);
+            }));
+        }
+        for (Thread t : threads) t.join();
+
+        assertEquals(4_000, metrics.getScans());
+        assertEquals(16_000, metrics.getTargetsExamined());
+        assertEquals(4_000, metrics.getHighDetections());
+    }
+
+    @Test
+    void metricsAreVisibleOverJmx() throws Exception {
+        ScanMetrics metrics = new ScanMetrics();
+        ObjectName name = metrics.register("jmx-test");
+        try {
+            new Radar("R1", 10.0, 0.5).withMetrics(metrics).scan(TARGETS);
+            assertEquals(1L, ManagementFactory.getPlatformMBeanServer().getAttribute(name, "Scans"));
+            assertEquals(1L, ManagementFactory.getPlatformMBeanServer().getAttribute(name, "RejectedBySnr"));
+        } finally {
+            metrics.unregister(name);
+        }
+    }
+
+    @Test
+    void scansEmitJfrEvents(@TempDir Path dir) throws Exception {
+        Path file = dir.resolve("scan.jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable("edu.tedu.radar.Scan");
+            recording.start();
+            new Radar("JFR", 10.0, 0.5).withMetrics(new ScanMetrics()).scan(TARGETS);
+            recording.stop();
+            recording.dump(file);
+        }
+        List<RecordedEvent> events = RecordingFile.readAllEvents(file).stream()
+                .filter(e -> e.getEventType().getName().equals("edu.tedu.radar.Scan")).toList();
+        assertEquals(1, events.size());
+        assertEquals("JFR", events.get(0).getString("radarId"));
+        assertEquals(4, events.get(0).getLong("targetsExamined"));
+    }
+
+    @Test
+    void histogramPercentilesStayWithinABucket() {
+        LatencyHistogram h = new LatencyHistogram();
+        assertEquals(0, h.percentileNanos(0.5));
+        for (int i = 1; i <= 100; i++) h.record(i * 1_000L);
+        long p50 = h.percentileNanos(0.5);
+        assertTrue(p50 >= 50_000 && p50 < 100_000, "p50 = " + p50);
+        assertEquals(100_000, h.percentileNanos(1.0));
+        assertThrows(IllegalArgumentException.class, () -> h.percentileNanos(1.5));
+        h.reset();
+        assertEquals(0, h.getCount());
+    }
+}
@@ -0,0 +1,88 @@
+package edu.tedu.radar;
+
+import org.junit.jupiter.api.Test;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ScanService_Test {
+
+    private final Radar radar = new Radar("R", 40.0, 0.4);
+
+    @Test
+    void coalescedRequestsGetTheirOwnScanResult() {
+        List<List<Target>> requests = new ArrayList<>();
+        for (int i = 0; i < 12; i++) requests.add(ScanFixtures.randomTargets(100 + i, 50 + i * 40, 60.0));
+        requests.add(List.of());
+        try (ScanService service = new ScanService(4, Duration.ofMillis(20))) {
+            List<CompletableFuture<List<Detection>>> futures = new ArrayList<>();
+            for (int i = 0; i < requests.size(); i++) futures.add(service.submit("tenant-" + (i % 3), radar, requests.get(i)));
+            for (int i = 0; i < requests.size(); i++) {
+                assertIterableEquals(ScanFixtures.describe(radar.scan(requests.get(i))),
+                        ScanFixtures.describe(futures.get(i).join()), "request " + i);
+            }
+        }
+    }
+
+    @Test
+    void interruptedLeaderStillServesItsFollowers() throws Exception {
+        List<Thread> threads = new CopyOnWriteArrayList<>();
+        BlockingQueue<Integer> joined = new LinkedBlockingQueue<>(); // batch size seen by each request
+        List<Target> first = ScanFixtures.randomTargets(1, 300, 60.0), second = ScanFixtures.randomTargets(2, 300, 60.0);
+        try (ScanService service = new ScanService(2, Duration.ofSeconds(30), r -> {
+            Thread t = Thread.ofVirtual().unstarted(r);
+            threads.add(t);
+            return t;
+        }, joined::add)) {
+            CompletableFuture<List<Detection>> leader = service.submit("a", radar, first);
+            assertEquals(1, joined.poll(5, TimeUnit.SECONDS)); // opened the batch, leads its window
+            CompletableFuture<List<Detection>> follower = service.submit("b", radar, second);
+            assertEquals(2, joined.poll(5, TimeUnit.SECONDS)); // joined it
+            threads.get(0).interrupt();
+
+            assertIterableEquals(ScanFixtures.describe(radar.scan(first)), ScanFixtures.describe(leader.get(5, TimeUnit.SECONDS)));
+            assertIterableEquals(ScanFixtures.describe(radar.scan(second)), ScanFixtures.describe(follower.get(5, TimeUnit.SECONDS)));
+            // the batch was closed, so a later request opens a new one instead of joining a dead one
+            CompletableFuture<List<Detection>> later = service.submit("a", radar, first);
+            assertEquals(1, joined.poll(5, TimeUnit.SECONDS));
+            threads.get(2).interrupt();
+            assertIterableEquals(ScanFixtures.describe(radar.scan(first)), ScanFixtures.describe(later.get(5, TimeUnit.SECONDS)));
+        }
+    }
+
+    @Test
+    void zeroWindowScansEachRequestDirectly() {
+        List<Target> targets = ScanFixtures.randomTargets(7, 500, 60.0);
+        try (ScanService service = new ScanService(1, Duration.ZERO)) {
+            assertIterableEquals(ScanFixtures.describe(radar.scan(targets)),
+                    ScanFixtures.describe(service.submit("a", radar, targets).join()));
+        }
+    }
+
+    @Test
+    void latencyIsRecordedPerTenant() {
+        try (ScanService service = new ScanService(2, Duration.ofMillis(1))) {
+            for (int i = 0; i < 5; i++) service.submit("a", radar, ScanFixtures.randomTargets(i, 100, 60.0)).join();
+            service.submit("b", radar, List.of()).join();
+            assertEquals(5, service.getLatency("a").getCount());
+            assertEquals(1, service.getLatency("b").getCount());
+            assertTrue(service.getLatency("a").percentileNanos(0.99) > 0);
+            assertNull(service.getLatency("c"));
+        }
+    }
+
+    @Test
+    void rejectsInvalidArguments() {
+        assertThrows(IllegalArgumentException.class, () -> new ScanService(0, Duration.ZERO));
+        assertThrows(IllegalArgumentException.class, () -> new ScanService(1, Duration.ofMillis(-1)));
+        try (ScanService service = new ScanService(1, Duration.ZERO)) {
+            assertThrows(IllegalArgumentException.class, () -> service.submit(null, radar, List.of()));
+        }
+    }
+}
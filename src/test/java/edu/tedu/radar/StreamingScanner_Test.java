@@ -0,0 +1,99 @@
+package edu.tedu.radar;
+
+import org.junit.jupiter.api.Test;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Flow;
+import java.util.concurrent.SubmissionPublisher;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class StreamingScanner_Test {
+
+    private final Radar radar = new Radar("R", 40.0, 0.4);
+    private final List<Target> targets = ScanFixtures.randomTargets(3, 2_000, 60.0);
+
+    private List<Detection> expectedWindows(int windowSize) {
+        List<Detection> expected = new ArrayList<>();
+        for (int from = 0; from < targets.size(); from += windowSize) {
+            expected.addAll(radar.scan(targets.subList(from, Math.min(targets.size(), from + windowSize))));
+        }
+        return expected;
+    }
+
+    private static List<Detection> drain(Iterator<Detection> it) {
+        List<Detection> out = new ArrayList<>();
+        it.forEachRemaining(out::add);
+        return out;
+    }
+
+    @Test
+    void plainIteratorEmitsInArrivalOrder() {
+        List<Detection> expected = new ArrayList<>();
+        for (Target t : targets) {
+            List<Detection> one = radar.scan(List.of(t));
+            expected.addAll(one);
+        }
+        assertIterableEquals(ScanFixtures.describe(expected),
+                ScanFixtures.describe(drain(new StreamingScanner(radar).scan(targets.iterator()))));
+    }
+
+    @Test
+    void windowedIteratorSortsEachWindow() {
+        assertIterableEquals(ScanFixtures.describe(expectedWindows(300)),
+                ScanFixtures.describe(drain(new StreamingScanner(radar).scanWindowed(targets.iterator(), 300))));
+        assertThrows(IllegalArgumentException.class, () -> new StreamingScanner(radar).scanWindowed(targets.iterator(), 0));
+    }
+
+    @Test
+    void processorDeliversWindowedOutputWithOneByOneDemand() throws InterruptedException {
+        Flow.Processor<Target, Detection> processor = new StreamingScanner(radar).processor(250);
+        List<Detection> received = new CopyOnWriteArrayList<>();
+        CountDownLatch done = new CountDownLatch(1);
+        processor.subscribe(new Flow.Subscriber<>() {
+            private Flow.Subscription s;
+            public void onSubscribe(Flow.Subscription s) { this.s = s; s.request(1); }
+            public void onNext(Detection d) { received.add(d); s.request(1); }
+            public void onError(Throwable t) { done.countDown(); }
+            public void onComplete() { done.countDown(); }
+        });
+        try (SubmissionPublisher<Target> publisher = new SubmissionPublisher<>()) {
+            publisher.subscribe(processor);
+            targets.forEach(publisher::submit);
+        }
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+        assertIterableEquals(ScanFixtures.describe(expectedWindows(250)), ScanFixtures.describe(received));
+    }
+
+    @Test
+    void upstreamIsOnlyAskedForWhatDownstreamCanTake() {
+        AtomicLong requestedUpstream = new AtomicLong();
+        List<Flow.Subscriber<? super Target>> upstreamSubscriber = new ArrayList<>();
+        Flow.Publisher<Target> feed = s -> {
+            upstreamSubscriber.add(s);
+            s.onSubscribe(new Flow.Subscription() {
+                public void request(long n) { requestedUpstream.addAndGet(n); }
+                public void cancel() {}
+            });
+        };
+        Flow.Processor<Target, Detection> processor = new StreamingScanner(new Radar("R", 10.0, 0.1)).processor();
+        List<Detection> received = new ArrayList<>();
+        processor.subscribe(new Flow.Subscriber<>() {
+            public void onSubscribe(Flow.Subscription s) { s.request(2); }
+            public void onNext(Detection d) { received.add(d); }
+            public void onError(Throwable t) {}
+            public void onComplete() {}
+        });
+        feed.subscribe(processor);
+
+        assertEquals(StreamingScanner.DEFAULT_REQUEST_BATCH, requestedUpstream.get());
+        for (int i = 0; i < 10; i++) upstreamSubscriber.get(0).onNext(new Target("T" + i, 1, 0, 5));
+        assertEquals(2, received.size());
+        // nothing more is pulled while downstream has no demand left
+        assertEquals(StreamingScanner.DEFAULT_REQUEST_BATCH, requestedUpstream.get());
+    }
+}
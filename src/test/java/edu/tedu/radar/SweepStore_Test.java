@@ -0,0 +1,135 @@
+package edu.tedu.radar;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SweepStore_Test {
+
+    private static final long T0 = 1_699_999_800_000L; // on a partition boundary
+    private static final Duration SPAN = Duration.ofMinutes(10);
+
+    @TempDir
+    Path dir;
+
+    private final Radar radar = new Radar("R", 40.0, 0.4);
+    private final List<List<Detection>> sweeps = new ArrayList<>();
+
+    private void appendSweeps(SweepStore store, int from, int to) {
+        for (int s = from; s < to; s++) {
+            List<Detection> sweep = radar.scan(ScanFixtures.randomTargets(s, 400, 50.0));
+            while (sweeps.size() <= s) sweeps.add(null);
+            sweeps.set(s, sweep);
+            store.append(T0 + s * 60_000L, sweep);
+        }
+    }
+
+    // linear reference over everything appended
+    private List<String> expected(SweepQuery q) {
+        List<String> out = new ArrayList<>();
+        for (int s = 0; s < sweeps.size(); s++) {
+            for (Detection d : sweeps.get(s)) {
+                long ts = T0 + s * 60_000L;
+                if (q.matches(ts, d.getDistanceKm(), d.getBearingDeg(), d.getThreat())) out.add(ts + "|" + ScanFixtures.describe(d));
+            }
+        }
+        return out;
+    }
+
+    private static List<String> describe(List<StoredDetection> stored) {
+        return stored.stream().map(s -> s.getTimestampMillis() + "|" + ScanFixtures.describe(s.getDetection())).toList();
+    }
+
+    private List<SweepQuery> queries() {
+        return List.of(
+                SweepQuery.all(),
+                SweepQuery.between(T0 + 5 * 60_000L, T0 + 35 * 60_000L).withinKm(10).bearingDeg(30, 60).threats(ThreatLevel.HIGH),
+                SweepQuery.between(T0, T0 + 3_600_000L).distanceKm(5, 20).bearingDeg(350, 10),
+                SweepQuery.between(T0 + 12 * 60_000L, T0 + 12 * 60_000L).atLeast(ThreatLevel.MEDIUM),
+                SweepQuery.all().distanceKm(15, 15).bearingDeg(-90, 90));
+    }
+
+    private void assertQueries(SweepStore store) {
+        for (SweepQuery q : queries()) assertIterableEquals(expected(q), describe(store.query(q)));
+    }
+
+    @Test
+    void queriesMatchLinearFilterBeforeAndAfterFlush() throws IOException {
+        try (SweepStore store = new SweepStore(dir, SPAN)) {
+            appendSweeps(store, 0, 25);
+            assertEquals(3, store.partitionCount());
+            assertQueries(store);
+            store.flush();
+            assertEquals(3, store.segmentCount());
+            appendSweeps(store, 25, 40);
+            assertQueries(store);
+        }
+    }
+
+    @Test
+    void reopenAndCompactKeepEveryRecord() throws IOException {
+        try (SweepStore store = new SweepStore(dir, SPAN)) {
+            appendSweeps(store, 0, 15);
+            store.flush();
+            appendSweeps(store, 15, 30);
+        }
+        try (SweepStore store = new SweepStore(dir, SPAN)) {
+            assertEquals(4, store.segmentCount());
+            long size = store.size();
+            assertQueries(store);
+            store.compact();
+            assertEquals(3, store.segmentCount());
+            assertEquals(size, store.size());
+            assertQueries(store);
+        }
+        try (Stream<Path> files = Files.list(dir)) {
+            assertEquals(3, files.count());
+        }
+    }
+
+    @Test
+    void leftoverCompactionInputsAreDroppedOnOpen() throws IOException {
+        try (SweepStore store = new SweepStore(dir, SPAN)) {
+            appendSweeps(store, 0, 3);
+            store.flush();
+            appendSweeps(store, 3, 6);
+            store.flush();
+        }
+        // simulate a crash between writing the merged segment and deleting its inputs
+        List<Path> inputs;
+        try (Stream<Path> files = Files.list(dir)) {
+            inputs = files.toList();
+        }
+        Path backup = Files.createDirectory(dir.resolve("backup"));
+        for (Path p : inputs) Files.copy(p, backup.resolve(p.getFileName()));
+        try (SweepStore store = new SweepStore(dir, SPAN)) {
+            store.compact();
+        }
+        for (Path p : inputs) Files.copy(backup.resolve(p.getFileName()), p);
+        // and a merge that never got past its temporary file
+        Path tmp = dir.resolve("sweep-0-0-99.seg.tmp");
+        Files.write(tmp, new byte[]{1, 2, 3});
+        try (SweepStore store = new SweepStore(dir, SPAN)) {
+            assertEquals(1, store.segmentCount());
+            assertQueries(store);
+        }
+        assertFalse(Files.exists(tmp));
+    }
+
+    @Test
+    void rejectsInvalidArguments() throws IOException {
+        assertThrows(IllegalArgumentException.class, () -> new SweepStore(dir, Duration.ZERO));
+        assertThrows(IllegalArgumentException.class, () -> SweepQuery.between(2, 1));
+        assertThrows(IllegalArgumentException.class, () -> SweepQuery.all().distanceKm(5, 1));
+        SweepStore store = new SweepStore(dir, SPAN);
+        store.close();
+        assertThrows(IllegalStateException.class, () -> store.query(SweepQuery.all()));
+    }
+}
@@ -0,0 +1,105 @@
+package edu.tedu.radar;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TargetBatch_Test {
+
+    @Test
+    void addInternsIdsAndValidatesRcs() {
+        TargetBatch batch = new TargetBatch(1);
+        batch.add("A", 1, 2, 3);
+        batch.add("B", 4, 5, 6);
+        batch.add("A", 7, 8, 9);
+
+        assertEquals(3, batch.size());
+        assertEquals(2, batch.idCount());
+        assertEquals(batch.getIdRef(0), batch.getIdRef(2));
+        assertSame(batch.getId(0), batch.getId(2));
+        assertEquals(8.0, batch.getY(2));
+        assertThrows(IllegalArgumentException.class, () -> batch.add("N", 0, 0, -1));
+        assertThrows(IndexOutOfBoundsException.class, () -> batch.getX(3));
+    }
+
+    @ParameterizedTest
+    @ValueSource(longs = {1L, 7L, 42L})
+    void columnarScanMatchesListScan(long seed) {
+        Radar radar = new Radar("R", 40.0, 0.4);
+        List<Target> targets = ScanFixtures.randomTargets(seed, 5_000, 60.0);
+
+        DetectionBatch out = radar.scan(TargetBatch.of(targets), new DetectionBatch());
+
+        assertIterableEquals(ScanFixtures.describe(ScanFixtures.referenceScan(radar, targets)),
+                ScanFixtures.describe(out.toDetections()));
+        assertIterableEquals(ScanFixtures.describe(ScanFixtures.referenceScan(radar, targets)),
+                ScanFixtures.describe(radar.scan(targets)));
+    }
+
+    @Test
+    void detectionBatchIsReusedAcrossSweeps() {
+        Radar radar = new Radar("R", 10.0, 0.1);
+        TargetBatch batch = new TargetBatch();
+        batch.add("C", 0, 5, 2);
+        batch.add("A", 1, 0, 2);
+        DetectionBatch out = radar.scan(batch, new DetectionBatch());
+        assertEquals("A", out.getTargetId(0));
+        assertEquals(1, out.getRow(0));
+
+        batch.clear();
+        batch.add("B", 0, 1, 2);
+        radar.scan(batch, out);
+        assertEquals(1, out.size());
+        assertEquals("B", out.getTargetId(0));
+        assertEquals(0, out.getRow(0));
+    }
+
+    @Test
+    void oneOffScanRanksOnlyTheSurvivingIds() {
+        // the list path builds a fresh batch per call; ranking all of its ids costs far more
+        // than the scan when few targets are in range
+        Radar radar = new Radar("R", 5.0, 0.1);
+        List<Target> targets = ScanFixtures.randomTargets(3L, 20_000, 60.0);
+        TargetBatch batch = TargetBatch.of(targets);
+        List<String> expected = ScanFixtures.describe(ScanFixtures.referenceScan(radar, targets));
+
+        DetectionBatch out = radar.scanScalar(batch, new DetectionBatch());
+        assertFalse(batch.hasIdRanks());
+        assertIterableEquals(expected, ScanFixtures.describe(out.toDetections()));
+
+        // a reused batch builds the rank table once and sorts in O(n) from then on
+        radar.scanScalar(batch, out);
+        assertTrue(batch.hasIdRanks());
+        assertIterableEquals(expected, ScanFixtures.describe(out.toDetections()));
+    }
+
+    @Test
+    void nullIdsSortFirstOnBothSortPaths() {
+        // few distinct ids, so the stable merge of equal ids is exercised across many runs
+        Radar radar = new Radar("R", 40.0, 0.4);
+        List<Target> targets = new ArrayList<>();
+        for (Target t : ScanFixtures.randomTargets(5L, 3_000, 60.0)) {
+            String id = t.getId().hashCode() % 7 == 0 ? null : "T" + Math.floorMod(t.getId().hashCode(), 40);
+            targets.add(new Target(id, t.getX(), t.getY(), t.getRcs()));
+        }
+        List<Detection> expected = new ArrayList<>();
+        for (Target t : targets) {
+            Detection d = radar.detect(t);
+            if (d != null) expected.add(d);
+        }
+        expected.sort(Comparator.comparing(Detection::getTargetId, Comparator.nullsFirst(Comparator.naturalOrder())));
+        assertNull(expected.get(0).getTargetId());
+
+        TargetBatch batch = TargetBatch.of(targets);
+        DetectionBatch out = radar.scanScalar(batch, new DetectionBatch()); // survivors only
+        assertIterableEquals(ScanFixtures.describe(expected), ScanFixtures.describe(out.toDetections()));
+        radar.scanScalar(batch, out);                                      // full rank table
+        assertTrue(batch.hasIdRanks());
+        assertIterableEquals(ScanFixtures.describe(expected), ScanFixtures.describe(out.toDetections()));
+        assertIterableEquals(ScanFixtures.describe(expected), ScanFixtures.describe(radar.scan(targets)));
+    }
+}
@@ -0,0 +1,124 @@
+package edu.tedu.radar;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TargetFileReader_Test {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void mappedScanMatchesListScan() throws IOException {
+        Radar radar = new Radar("R", 40.0, 0.4);
+        List<Target> targets = ScanFixtures.randomTargets(9, 20_000, 60.0);
+        Path file = dir.resolve("sweep.rtgt");
+        try (TargetFileWriter writer = new TargetFileWriter(file)) {
+            writer.writeAll(targets);
+            assertEquals(20_000, writer.recordCount());
+        }
+
+        try (TargetFileReader reader = new TargetFileReader(file)) {
+            assertEquals(targets.size(), reader.size());
+            assertEquals(targets.get(17).getId(), reader.getId(17));
+            assertEquals(targets.get(17).getRcs(), reader.getRcs(17));
+            assertIterableEquals(ScanFixtures.describe(radar.scan(targets)),
+                    ScanFixtures.describe(reader.scan(radar, new DetectionBatch()).toDetections()));
+            assertThrows(IndexOutOfBoundsException.class, () -> reader.getX(20_000));
+        }
+    }
+
+    @Test
+    void detectionsRoundTrip() throws IOException {
+        Radar radar = new Radar("R", 40.0, 0.4);
+        List<Target> targets = ScanFixtures.randomTargets(10, 2_000, 60.0);
+        Path targetFile = dir.resolve("t.rtgt"), detectionFile = dir.resolve("d.rdet");
+        try (TargetFileWriter writer = new TargetFileWriter(targetFile)) {
+            writer.writeAll(targets);
+        }
+        try (TargetFileReader reader = new TargetFileReader(targetFile);
+             DetectionFileWriter writer = new DetectionFileWriter(detectionFile)) {
+            writer.writeAll(reader.scan(radar, new DetectionBatch()));
+        }
+
+        try (DetectionFileReader reader = new DetectionFileReader(detectionFile)) {
+            assertIterableEquals(ScanFixtures.describe(radar.scan(targets)), ScanFixtures.describe(reader.readAll()));
+        }
+    }
+
+    @Test
+    void nullIdsRoundTripAndSortFirst() throws IOException {
+        Radar radar = new Radar("R", 40.0, 0.4);
+        List<Target> targets = new java.util.ArrayList<>(ScanFixtures.randomTargets(11, 500, 60.0));
+        targets.add(new Target(null, 1, 1, 100));       // detected
+        targets.add(new Target(null, 500, 500, 100));   // out of range
+        targets.add(7, new Target(null, 2, -3, 100));   // detected, earlier in the list
+        Path targetFile = dir.resolve("nulls.rtgt"), detectionFile = dir.resolve("nulls.rdet");
+        try (TargetFileWriter writer = new TargetFileWriter(targetFile)) {
+            writer.writeAll(targets);
+        }
+        List<String> expected = ScanFixtures.describe(radar.scan(targets));
+        try (TargetFileReader reader = new TargetFileReader(targetFile);
+             DetectionFileWriter writer = new DetectionFileWriter(detectionFile)) {
+            assertNull(reader.getId(7));
+            DetectionBatch out = reader.scan(radar, new DetectionBatch());
+            assertNull(out.getTargetId(0));
+            assertNull(out.getTargetId(1));
+            assertEquals(7, out.getRow(0));
+            assertIterableEquals(expected, ScanFixtures.describe(out.toDetections()));
+            writer.writeAll(out);
+        }
+        try (DetectionFileReader reader = new DetectionFileReader(detectionFile)) {
+            assertIterableEquals(expected, ScanFixtures.describe(reader.readAll()));
+        }
+    }
+
+    @Test
+    void corruptRecordsAreRejectedOnOpen() throws IOException {
+        Path targets = dir.resolve("bad.rtgt"), detections = dir.resolve("bad.rdet");
+        try (TargetFileWriter writer = new TargetFileWriter(targets)) {
+            writer.writeAll(List.of(new Target("A", 1, 2, 3), new Target("B", 1, 2, 3)));
+        }
+        try (DetectionFileWriter writer = new DetectionFileWriter(detections)) {
+            writer.write(new Detection("A", 1, 2, 3, ThreatLevel.HIGH));
+        }
+        int record = MappedRecordFile.HEADER_BYTES + MappedRecordFile.TARGET_RECORD_BYTES;
+        byte[] bytes = Files.readAllBytes(targets);
+        bytes[record] = 9; // idRef 9 of 2 ids
+        Files.write(targets, bytes);
+        assertThrows(IOException.class, () -> new TargetFileReader(targets));
+
+        bytes = Files.readAllBytes(detections);
+        bytes[MappedRecordFile.HEADER_BYTES + 28] = 7; // no ThreatLevel 7
+        Files.write(detections, bytes);
+        assertThrows(IOException.class, () -> new DetectionFileReader(detections));
+    }
+
+    @Test
+    void wrongKindOfFileIsRejected() throws IOException {
+        Path detections = dir.resolve("d.rdet");
+        try (DetectionFileWriter writer = new DetectionFileWriter(detections)) {
+            writer.write(new Detection("A", 1, 2, 3, ThreatLevel.HIGH));
+        }
+        assertThrows(IOException.class, () -> new TargetFileReader(detections));
+
+        Path garbage = dir.resolve("garbage.bin");
+        Files.write(garbage, new byte[]{1, 2, 3});
+        assertThrows(IOException.class, () -> new DetectionFileReader(garbage));
+    }
+
+    @Test
+    void emptyFileHasNoRecords() throws IOException {
+        Path file = dir.resolve("empty.rtgt");
+        new TargetFileWriter(file).close();
+        try (TargetFileReader reader = new TargetFileReader(file)) {
+            assertEquals(0, reader.size());
+            assertEquals(0, reader.scan(new Radar("R", 1, 0), new DetectionBatch()).size());
+        }
+    }
+}
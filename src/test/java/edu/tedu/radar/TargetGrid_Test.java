@@ -0,0 +1,74 @@
+package edu.tedu.radar;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import java.util.List;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TargetGrid_Test {
+
+    @ParameterizedTest
+    @CsvSource({
+            "1, 25.0, 0.5",
+            "2, 5.0, 0.1",
+            "3, 150.0, 0.0",
+            "4, 0.5, 0.2"
+    })
+    void gridScanMatchesLinearScan(long seed, double range, double threshold) {
+        Radar radar = new Radar("R", range, threshold);
+        List<Target> targets = ScanFixtures.randomTargets(seed, 20_000, 200.0);
+        TargetBatch batch = TargetBatch.of(targets);
+
+        List<Detection> expected = ScanFixtures.referenceScan(radar, targets);
+        List<Detection> actual = radar.scan(TargetGrid.of(batch), new DetectionBatch()).toDetections();
+
+        assertIterableEquals(ScanFixtures.describe(expected), ScanFixtures.describe(actual));
+    }
+
+    @Test
+    void targetsOnTheRangeBoundaryAreKept() {
+        Radar radar = new Radar("R4", 5.0, 0.1);
+        TargetBatch batch = new TargetBatch();
+        batch.add("T_At", 5.0, 0, 1.0);
+        batch.add("T_Out", 5.000001, 0, 1.0);
+        batch.add("T_Diag", 3.0, -4.0, 1.0);
+        batch.add("T_Far", 400.0, 400.0, 1.0);
+
+        TargetGrid grid = new TargetGrid(batch, 0.25);
+        DetectionBatch out = radar.scan(grid, new DetectionBatch());
+
+        // T_Far sits in a cell that never overlaps the range circle
+        assertEquals(3, grid.collectWithin(0, 0, 5.0, new DetectionBatch()));
+
+        assertEquals(2, out.size());
+        assertEquals("T_At", out.getTargetId(0));
+        assertEquals("T_Diag", out.getTargetId(1));
+    }
+
+    @Test
+    void nonFiniteTargetsAreNeverCandidates() {
+        TargetBatch batch = new TargetBatch();
+        batch.add("NaN", Double.NaN, 0, 1.0);
+        batch.add("Inf", Double.POSITIVE_INFINITY, 0, 1.0);
+        batch.add("A", 1, 1, 1.0);
+        Radar radar = new Radar("R", 10.0, 0.1);
+
+        assertEquals(1, radar.scan(TargetGrid.of(batch), new DetectionBatch()).size());
+
+        // an unbounded radar falls back to the linear path, which does accept the infinite target
+        Radar unbounded = new Radar("Inf", Double.POSITIVE_INFINITY, 0.0);
+        assertIterableEquals(ScanFixtures.describe(unbounded.scan(batch, new DetectionBatch()).toDetections()),
+                ScanFixtures.describe(unbounded.scan(TargetGrid.of(batch), new DetectionBatch()).toDetections()));
+    }
+
+    @Test
+    void staleGridIsRejected() {
+        TargetBatch batch = new TargetBatch();
+        batch.add("A", 1, 1, 1.0);
+        TargetGrid grid = TargetGrid.of(batch);
+        batch.add("B", 2, 2, 1.0);
+
+        assertThrows(IllegalStateException.class, () -> new Radar("R", 10, 0.1).scan(grid, new DetectionBatch()));
+    }
+}
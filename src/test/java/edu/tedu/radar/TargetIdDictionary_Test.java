@@ -0,0 +1,88 @@
+package edu.tedu.radar;
+
+import org.junit.jupiter.api.Test;
+import java.util.ArrayList;
+import java.util.List;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TargetIdDictionary_Test {
+
+    private final Radar radar = new Radar("R", 40.0, 0.4);
+
+    private static TargetIdDictionary dictionaryOf(List<Target> targets) {
+        return TargetIdDictionary.of(targets.stream().map(Target::getId).toList());
+    }
+
+    private static List<Target> withHandles(TargetIdDictionary ids, List<Target> targets) {
+        List<Target> out = new ArrayList<>(targets.size());
+        for (Target t : targets) out.add(ids.target(ids.handleOf(t.getId()), t.getX(), t.getY(), t.getRcs()));
+        return out;
+    }
+
+    @Test
+    void handlesFollowLexicographicOrder() {
+        TargetIdDictionary ids = TargetIdDictionary.of(List.of("T10", "T2", "A", "T10", "T1"));
+        assertEquals(4, ids.size());
+        assertEquals(List.of("A", "T1", "T10", "T2"), List.of(ids.idOf(0), ids.idOf(1), ids.idOf(2), ids.idOf(3)));
+        assertEquals(2, ids.handleOf("T10"));
+        assertEquals(-1, ids.handleOf("B"));
+        assertThrows(IndexOutOfBoundsException.class, () -> ids.idOf(4));
+        assertThrows(IllegalArgumentException.class, () -> TargetIdDictionary.of(java.util.Arrays.asList("A", null)));
+    }
+
+    @Test
+    void scanCarriesHandlesAndKeepsOrder() {
+        List<Target> plain = ScanFixtures.randomTargets(17, 5_000, 60.0);
+        TargetIdDictionary ids = dictionaryOf(plain);
+        List<Target> targets = withHandles(ids, plain);
+        List<Detection> detections = radar.scan(targets);
+        assertIterableEquals(ScanFixtures.describe(ScanFixtures.referenceScan(radar, plain)), ScanFixtures.describe(detections));
+        for (Detection d : detections) assertEquals(ids.handleOf(d.getTargetId()), d.getTargetIdHandle());
+        for (Detection d : radar.scan(plain)) assertEquals(-1, d.getTargetIdHandle());
+    }
+
+    @Test
+    void dictionaryBatchScansLikePlainBatch() {
+        List<Target> plain = ScanFixtures.randomTargets(23, 20_000, 60.0);
+        TargetIdDictionary ids = dictionaryOf(plain);
+        TargetBatch batch = TargetBatch.of(ids, plain);
+        DetectionBatch out = radar.scan(batch, new DetectionBatch());
+        assertIterableEquals(ScanFixtures.describe(ScanFixtures.referenceScan(radar, plain)), ScanFixtures.describe(out.toDetections()));
+        for (int i = 0; i < out.size(); i++) assertEquals(ids.handleOf(out.getTargetId(i)), out.getTargetIdHandle(i));
+
+        assertEquals(batch.size(), batch.add(ids.handleOf("T5"), 1, 1, 1));
+        assertThrows(IllegalArgumentException.class, () -> batch.add("unknown", 1, 1, 1));
+        assertThrows(IllegalStateException.class, () -> new TargetBatch().add(0, 1, 1, 1));
+    }
+
+    @Test
+    void radixSortSpansSeveralPasses() {
+        // far more distinct ids than one radix digit covers, in reverse id order
+        List<Target> targets = new ArrayList<>();
+        for (int i = 9_999; i >= 0; i--) targets.add(new Target(String.format("T%05d", i % 5_000), 0.1, 0.1, 5.0 + i * 1e-4));
+        List<String> expected = ScanFixtures.describe(ScanFixtures.referenceScan(radar, targets));
+        TargetBatch batch = TargetBatch.of(targets);
+        DetectionBatch out = new DetectionBatch();
+        radar.scanScalar(batch, out); // the first sort of a batch builds no rank table
+        assertIterableEquals(expected, ScanFixtures.describe(radar.scanScalar(batch, out).toDetections()));
+        TargetIdDictionary ids = dictionaryOf(targets);
+        assertIterableEquals(expected, ScanFixtures.describe(radar.scan(withHandles(ids, targets))));
+    }
+
+    @Test
+    void listScanFallsBackWhenHandlesDisagreeWithIds() {
+        // handles from two dictionaries, and ids without one, do not order the ids
+        List<Target> plain = ScanFixtures.randomTargets(29, 5_000, 60.0);
+        TargetIdDictionary first = dictionaryOf(plain.subList(0, 2_500)), second = dictionaryOf(plain.subList(2_500, 5_000));
+        List<Target> mixed = new ArrayList<>(withHandles(first, plain.subList(0, 2_500)));
+        for (Target t : plain.subList(2_500, 5_000)) {
+            int h = second.handleOf(t.getId());
+            mixed.add(h % 7 == 0 ? t : second.target(h, t.getX(), t.getY(), t.getRcs()));
+        }
+        List<String> expected = ScanFixtures.describe(ScanFixtures.referenceScan(radar, plain));
+        assertIterableEquals(expected, ScanFixtures.describe(radar.scan(mixed)));
+        List<Target> twoDictionaries = new ArrayList<>(withHandles(first, plain.subList(0, 2_500)));
+        twoDictionaries.addAll(withHandles(second, plain.subList(2_500, 5_000)));
+        assertIterableEquals(expected, ScanFixtures.describe(radar.scan(twoDictionaries)));
+    }
+}
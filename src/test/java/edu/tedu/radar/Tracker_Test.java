@@ -0,0 +1,92 @@
+package edu.tedu.radar;
+
+import org.junit.jupiter.api.Test;
+import java.util.ArrayList;
+import java.util.List;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class Tracker_Test {
+
+    private static Detection at(String id, double x, double y, ThreatLevel threat) {
+        return new Detection(id, Math.hypot(x, y), (Math.toDegrees(Math.atan2(y, x)) + 360) % 360, 1.0, threat);
+    }
+
+    @Test
+    void identifiedTrackConvergesOnConstantVelocity() {
+        Tracker tracker = new Tracker();
+        for (int k = 0; k < 40; k++) {
+            tracker.update(List.of(at("A", 10 + 0.2 * k, 5 - 0.1 * k, ThreatLevel.MEDIUM)), 1.0);
+        }
+        Track a = tracker.getTrack("A");
+        assertTrue(a.isIdentified());
+        assertEquals(40, a.getHits());
+        assertEquals(0.2, a.getVx(), 1e-3);
+        assertEquals(-0.1, a.getVy(), 1e-3);
+        assertEquals(17.8, a.getX(), 1e-2);
+        assertEquals(Math.hypot(a.getX(), a.getY()), a.getDistanceKm(), 1e-12);
+    }
+
+    @Test
+    void unidentifiedReturnsAreGatedOntoExistingTracks() {
+        Tracker tracker = new Tracker(0.5, 0.3, 1.0, 2);
+        for (int k = 0; k < 10; k++) {
+            tracker.update(List.of(
+                    at(null, 20 + 0.3 * k, 0, ThreatLevel.LOW),
+                    at(null, -20, 10 - 0.3 * k, ThreatLevel.HIGH)), 1.0);
+        }
+        assertEquals(2, tracker.getTrackCount());
+        assertTrue(tracker.getTracks().stream().allMatch(t -> t.getHits() == 10 && !t.isIdentified()));
+
+        // a return far outside every gate starts its own track
+        tracker.update(List.of(at(null, 100, 100, ThreatLevel.LOW)), 1.0);
+        assertEquals(3, tracker.getTrackCount());
+    }
+
+    @Test
+    void anonymousTracksNeverReplaceATargetWithTheSameName() {
+        Tracker tracker = new Tracker(0.5, 0.3, 1.0, 2);
+        tracker.update(List.of(at(null, 50, 50, ThreatLevel.LOW), at("TRK-1", -50, -50, ThreatLevel.HIGH)), 1.0);
+        tracker.update(List.of(at("TRK-1", -50, -50, ThreatLevel.HIGH)), 1.0);
+
+        assertEquals(2, tracker.getTrackCount());
+        Track named = tracker.getTrack("TRK-1");
+        assertTrue(named.isIdentified());
+        assertEquals(2, named.getHits());
+        Track gated = tracker.getTracks().stream().filter(t -> !t.isIdentified()).findFirst().orElseThrow();
+        assertEquals("TRK-1", gated.getId());
+        assertEquals(1, gated.getMisses());
+        assertThrows(UnsupportedOperationException.class, () -> tracker.getTracks().clear());
+    }
+
+    @Test
+    void tracksAreDroppedAfterTooManyMisses() {
+        Tracker tracker = new Tracker(0.5, 0.3, 1.0, 2);
+        tracker.update(List.of(at("A", 1, 1, ThreatLevel.LOW)), 1.0);
+        tracker.update(List.of(), 1.0);
+        tracker.update(List.of(), 1.0);
+        assertEquals(2, tracker.getTrack("A").getMisses());
+        tracker.update(List.of(), 1.0);
+        assertNull(tracker.getTrack("A"));
+    }
+
+    @Test
+    void hundredThousandAnonymousTracksStayAssociated() {
+        Tracker tracker = new Tracker(0.5, 0.3, 2.0, 1);
+        for (int sweep = 0; sweep < 3; sweep++) {
+            List<Detection> detections = new ArrayList<>(100_000);
+            for (int i = 0; i < 100_000; i++) {
+                detections.add(at(null, (i % 400) * 10.0 + 0.1 * sweep, (i / 400) * 10.0 + 1, ThreatLevel.LOW));
+            }
+            tracker.update(detections, 1.0);
+        }
+        assertEquals(100_000, tracker.getTrackCount());
+        assertTrue(tracker.getTracks().stream().allMatch(t -> t.getHits() == 3));
+    }
+
+    @Test
+    void parametersAreValidated() {
+        assertThrows(IllegalArgumentException.class, () -> new Tracker(0, 0.3, 1, 1));
+        assertThrows(IllegalArgumentException.class, () -> new Tracker(0.5, 0.3, -1, 1));
+        assertThrows(IllegalArgumentException.class, () -> new Tracker().update(List.of(), 0));
+    }
+}
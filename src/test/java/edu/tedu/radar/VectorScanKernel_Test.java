@@ -0,0 +1,67 @@
+package edu.tedu.radar;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import java.util.List;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+// Differential tests: the SIMD kernel must produce exactly what the scalar gate produces.
+public class VectorScanKernel_Test {
+
+    private static List<String> scalar(Radar radar, TargetBatch batch) {
+        return ScanFixtures.describe(radar.scanScalar(batch, new DetectionBatch()).toDetections());
+    }
+
+    private static List<String> vector(Radar radar, TargetBatch batch) {
+        DetectionBatch out = new DetectionBatch();
+        out.reset(batch.idTable());
+        VectorScanKernel.gate(radar, batch, out);
+        out.sortByTargetId(batch.idRanks());
+        return ScanFixtures.describe(out.toDetections());
+    }
+
+    @Test
+    void vectorPathIsEnabledWhenTheModuleIsResolved() {
+        // runs without --add-modules jdk.incubator.vector (e.g. from an IDE) take the scalar
+        // path and skip the differential tests below
+        assumeTrue(ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent());
+        assertTrue(VectorScanSupport.AVAILABLE);
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+            "1, 25.0, 0.5, 0, 0",
+            "2, 5.0, 0.1, 3, -2",
+            "3, 150.0, 0.0, 0, 0",
+            "4, 40.0, 3.0, -20, 10",
+            "5, 0.5, 0.2, 0, 0"
+    })
+    void kernelMatchesScalarOnRandomPictures(long seed, double range, double threshold, double rx, double ry) {
+        assumeTrue(VectorScanSupport.AVAILABLE);
+        Radar radar = new Radar("R", range, threshold, rx, ry);
+        TargetBatch batch = TargetBatch.of(ScanFixtures.randomTargets(seed, 10_003, 60.0));
+
+        assertIterableEquals(scalar(radar, batch), vector(radar, batch));
+        assertIterableEquals(scalar(radar, batch), ScanFixtures.describe(radar.scan(batch, new DetectionBatch()).toDetections()));
+    }
+
+    @Test
+    void kernelKeepsRangeAndSnrBoundaries() {
+        assumeTrue(VectorScanSupport.AVAILABLE);
+        Radar radar = new Radar("R", 5.0, 1.0);
+        TargetBatch batch = new TargetBatch();
+        for (int i = 0; i < 256; i++) {
+            double angle = i * Math.PI / 128;
+            double x = 5.0 * Math.cos(angle), y = 5.0 * Math.sin(angle);
+            double d = Math.hypot(x, y);
+            batch.add("ON" + i, x, y, 1.0 + d);               // snr exactly at the threshold
+            batch.add("UNDER" + i, x, y, Math.nextDown(1.0 + d));
+            batch.add("OUT" + i, Math.nextUp(x), Math.nextUp(y), 100);
+            batch.add("NAN" + i, Double.NaN, y, 100);
+        }
+        assertIterableEquals(scalar(radar, batch), vector(radar, batch));
+        assertFalse(scalar(radar, batch).isEmpty());
+    }
+}